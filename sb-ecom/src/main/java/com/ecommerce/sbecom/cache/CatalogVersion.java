@@ -0,0 +1,56 @@
+package com.ecommerce.sbecom.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters for the public catalog, bumped by every product and category mutation. The public GET
+ * endpoints derive their ETag and Last-Modified from them, so a repeat request with a matching validator is
+ * answered 304 before any database work or JSON serialization.
+ * <p>
+ * Counters live in memory: the ETags carry the startup time, so a restart (or another node) never
+ * re-issues a validator for different data.
+ */
+@Component
+public class CatalogVersion {
+
+    private final String instance = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong products = new AtomicLong();
+    private final AtomicLong categories = new AtomicLong();
+    private volatile long productsLastModified = System.currentTimeMillis();
+    private volatile long categoriesLastModified = productsLastModified;
+
+    /**
+     * Products, stock, prices or images changed.
+     */
+    public void productsChanged() {
+        products.incrementAndGet();
+        productsLastModified = System.currentTimeMillis();
+    }
+
+    /**
+     * A category changed; product listings filter and group by category, so they move too.
+     */
+    public void categoriesChanged() {
+        categories.incrementAndGet();
+        categoriesLastModified = System.currentTimeMillis();
+        productsChanged();
+    }
+
+    public String productsETag() {
+        return "W/\"p-" + instance + "-" + products.get() + "\"";
+    }
+
+    public long productsLastModified() {
+        return productsLastModified;
+    }
+
+    public String categoriesETag() {
+        return "W/\"c-" + instance + "-" + categories.get() + "\"";
+    }
+
+    public long categoriesLastModified() {
+        return categoriesLastModified;
+    }
+}
@@ -0,0 +1,135 @@
+package com.ecommerce.sbecom.cache;
+
+import com.ecommerce.sbecom.payload.ProductDTO;
+import com.ecommerce.sbecom.payload.ProductResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of ready-made {@link ProductResponse} pages for the public catalog.
+ * Entries are keyed by (keyword, category, page, size, sort) and are evicted selectively by the
+ * product mutations that can change them. Mutations evict after their transaction commits, and a page load
+ * that was running when an eviction happened is not cached (see {@link SingleFlightLoader#invalidate()}).
+ */
+@Component
+public class ProductCatalogCache {
+
+    private static final int RESPONSE_OVERHEAD_BYTES = 256;
+    private static final int PRODUCT_OVERHEAD_BYTES = 160;
+
+    private final Cache<CatalogKey, ProductResponse> cache;
+    private final SingleFlightLoader<CatalogKey, ProductResponse> singleFlight = new SingleFlightLoader<>();
+
+    public ProductCatalogCache(@Value("${spring.app.productCache.maxEntries}") long maxEntries,
+                               @Value("${spring.app.productCache.maxBytes}") long maxBytes,
+                               @Value("${spring.app.productCache.ttlSeconds}") long ttlSeconds,
+                               MeterRegistry meterRegistry) {
+        // Every entry weighs at least maxBytes / maxEntries, so the weight bound caps both memory and entry count
+        int minWeight = (int) Math.max(1, maxBytes / maxEntries);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((CatalogKey key, ProductResponse response) -> Math.max(minWeight, estimateSize(response)))
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "productCatalog");
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", "productCatalog")
+                .register(meterRegistry);
+    }
+
+    public ProductResponse get(CatalogKey key, Function<CatalogKey, ProductResponse> loader) {
+        return singleFlight.get(cache, key, loader);
+    }
+
+    /**
+     * Evicts the pages a product change can affect: every page that lists the product, plus every page
+     * whose category filter matches one of the given names (new products, renames, page shifts).
+     * Keyword pages are not narrowed further because search also matches descriptions, prefixes and typos.
+     */
+    public void evictAffected(Long productId, Collection<String> categoryNames) {
+        singleFlight.invalidate();
+        cache.asMap().entrySet().removeIf(entry ->
+                containsProduct(entry.getValue(), productId) || categoryMatches(entry.getKey(), categoryNames));
+    }
+
+    /**
+     * Evicts only the pages that currently list one of the given products (e.g. stock or image changes).
+     */
+    public void evictProducts(Collection<Long> productIds) {
+        singleFlight.invalidate();
+        cache.asMap().entrySet().removeIf(entry ->
+                productIds.stream().anyMatch(productId -> containsProduct(entry.getValue(), productId)));
+    }
+
+    public void evictAll() {
+        singleFlight.invalidate();
+        cache.invalidateAll();
+    }
+
+    private static boolean containsProduct(ProductResponse response, Long productId) {
+        if (productId == null || response.getContent() == null) {
+            return false;
+        }
+        for (ProductDTO product : response.getContent()) {
+            if (productId.equals(product.getProductId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean categoryMatches(CatalogKey key, Collection<String> categoryNames) {
+        if (key.category() == null) {
+            return true;
+        }
+        // The category filter is a SQL LIKE pattern; treat wildcard patterns as matching anything
+        if (key.category().contains("%") || key.category().contains("_")) {
+            return true;
+        }
+        return categoryNames.stream().anyMatch(name -> Objects.equals(name, key.category()));
+    }
+
+    private static int estimateSize(ProductResponse response) {
+        long size = RESPONSE_OVERHEAD_BYTES;
+        if (response.getContent() != null) {
+            for (ProductDTO product : response.getContent()) {
+                size += PRODUCT_OVERHEAD_BYTES
+                        + 2L * (length(product.getProductName())
+                        + length(product.getProductDescription())
+                        + length(product.getProductImage()));
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, size);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    public record CatalogKey(String keyword, String category, int pageNumber, int pageSize,
+                             String sortBy, String sortOrder) {
+
+        public static CatalogKey of(String keyword, String category, Integer pageNumber, Integer pageSize,
+                                    String sortBy, String sortOrder) {
+            return new CatalogKey(
+                    keyword == null || keyword.isEmpty() ? null : keyword.toLowerCase(Locale.ROOT),
+                    category == null || category.isEmpty() ? null : category,
+                    pageNumber,
+                    pageSize,
+                    sortBy,
+                    sortOrder.toLowerCase(Locale.ROOT));
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.ecommerce.sbecom.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Byte-level cache for the public catalog GETs. The first request for a URL serializes as usual; the JSON is
+ * kept together with a gzip copy, and later requests get the bytes that match their Accept-Encoding without
+ * running the controller, Jackson or compression again.
+ * <p>
+ * Keys carry the {@link CatalogVersion} ETag, so every product or category mutation makes older entries
+ * unreachable; they then age out under the byte-weighted size bound. A response is only stored when the version
+ * did not move while it was being built, and its headers (Cache-Control and the like) are replayed on a hit.
+ */
+@Component
+public class PublicResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final Pattern CATEGORIES = Pattern.compile("/api/public/categories/?");
+    private static final Pattern PRODUCTS = Pattern.compile(
+            "/api/public/(products(/keyword/[^/]+)?|categories/[^/]+/products)/?");
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+    private static final int MIN_GZIP_BYTES = 1024;
+    // Per-connection or per-request headers, and the ones write() sets itself, are never replayed from the cache
+    private static final Set<String> UNCACHED_HEADERS = Set.of("content-length", "content-encoding", "content-type",
+            "transfer-encoding", "connection", "vary", "date", "set-cookie");
+
+    private final CatalogVersion catalogVersion;
+    private final Cache<String, CachedResponse> cache;
+
+    public PublicResponseCacheFilter(CatalogVersion catalogVersion,
+                                     @Value("${spring.app.responseCache.maxBytes}") long maxBytes,
+                                     @Value("${spring.app.responseCache.ttlSeconds}") long ttlSeconds,
+                                     MeterRegistry meterRegistry) {
+        this.catalogVersion = catalogVersion;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse response) -> response.weight(key))
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "publicResponses");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !CATEGORIES.matcher(path).matches() && !PRODUCTS.matcher(path).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        boolean categories = CATEGORIES.matcher(path).matches();
+        String etag = categories ? catalogVersion.categoriesETag() : catalogVersion.productsETag();
+        long lastModified = categories ? catalogVersion.categoriesLastModified() : catalogVersion.productsLastModified();
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+        String key = etag + " " + request.getRequestURI()
+                + (request.getQueryString() == null ? "" : "?" + request.getQueryString());
+        boolean gzipAccepted = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            response.setContentType(cached.contentType());
+            cached.headers().forEach((name, values) -> {
+                response.setHeader(name, values.get(0));
+                values.subList(1, values.size()).forEach(value -> response.addHeader(name, value));
+            });
+            write(response, cached, gzipAccepted);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+        String contentType = wrapper.getContentType();
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || request.isAsyncStarted() || contentType == null
+                || !MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType))) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        byte[] body = wrapper.getContentAsByteArray();
+        CachedResponse fresh = new CachedResponse(contentType, replayableHeaders(response), body,
+                body.length >= MIN_GZIP_BYTES ? gzip(body) : null);
+        // A mutation committed while the controller ran: the body may already be the new data, so it must not
+        // be stored under the old version's key
+        String etagAfter = categories ? catalogVersion.categoriesETag() : catalogVersion.productsETag();
+        if (etagAfter.equals(etag)) {
+            cache.put(key, fresh);
+        }
+        write(response, fresh, gzipAccepted);
+    }
+
+    private static void write(HttpServletResponse response, CachedResponse cached, boolean gzipAccepted)
+            throws IOException {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        byte[] body = cached.identity();
+        if (gzipAccepted && cached.gzip() != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = cached.gzip();
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static Map<String, List<String>> replayableHeaders(HttpServletResponse response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            String lowerCase = name.toLowerCase(Locale.ROOT);
+            if (!UNCACHED_HEADERS.contains(lowerCase) && !lowerCase.startsWith("access-control-")
+                    && !headers.containsKey(name)) {
+                headers.put(name, List.copyOf(response.getHeaders(name)));
+            }
+        }
+        return headers;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equals("gzip") || parts[0].trim().equals("*")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        }
+        // Small or incompressible bodies are served as they are
+        return compressed.size() < body.length ? compressed.toByteArray() : null;
+    }
+
+    private record CachedResponse(String contentType, Map<String, List<String>> headers, byte[] identity, byte[] gzip) {
+
+        int weight(String key) {
+            long headerChars = headers.entrySet().stream()
+                    .mapToLong(header -> header.getKey().length()
+                            + header.getValue().stream().mapToLong(String::length).sum())
+                    .sum();
+            long bytes = ENTRY_OVERHEAD_BYTES + 2L * (key.length() + headerChars) + identity.length
+                    + (gzip == null ? 0 : gzip.length);
+            return (int) Math.min(Integer.MAX_VALUE, bytes);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.sbecom.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through load for a Caffeine cache whose loader does blocking I/O (JDBC).
+ * {@code Cache.get(key, loader)} runs the loader inside ConcurrentHashMap.compute, i.e. inside a
+ * {@code synchronized} block, which pins the carrier thread when requests run on virtual threads.
+ * Here the loader runs outside any monitor; concurrent callers for the same key wait on a future instead,
+ * so the cache keeps loading each key only once.
+ * <p>
+ * Evictions call {@link #invalidate()} first. A load that was already running read its rows before the change
+ * was committed, so its result is handed to the callers waiting for it but never stored in the cache.
+ */
+public class SingleFlightLoader<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public V get(Cache<K, V> cache, K key, Function<? super K, ? extends V> loader) {
+        V cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long startedIn = generation.get();
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, load);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            V value = loader.apply(key);
+            if (value != null && generation.get() == startedIn) {
+                cache.put(key, value);
+                // Checked again after the put: an eviction that bumps the generation later also sees this entry
+                if (generation.get() != startedIn) {
+                    cache.asMap().remove(key, value);
+                }
+            }
+            load.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    /**
+     * Marks every running load as stale and lets later callers start a fresh one instead of joining it.
+     * Call before removing the affected entries from the cache.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        inFlight.clear();
+    }
+
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            // Re-throw the loader's own exception (e.g. APIExceptions) so the exception handlers still see it
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.ecommerce.sbecom.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Per-endpoint Hibernate work: SQL statements and entity loads of each request are recorded as
+ * {@code hibernate.request.statements} and {@code hibernate.request.entity.loads} tagged with the handler's URI
+ * pattern and HTTP method. Factory-wide Hibernate statistics, including second-level cache hits, come from
+ * hibernate-micrometer as {@code hibernate.*}.
+ * <p>
+ * Counting is thread-confined: the request thread owns its counters, so concurrent requests never mix.
+ * Work done after an async hand-off (streaming responses) is not attributed.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class HibernateRequestMetrics implements WebMvcConfigurer, AsyncHandlerInterceptor {
+
+    private static final ThreadLocal<long[]> COUNTS = new ThreadLocal<>();
+    private static final int STATEMENTS = 0;
+    private static final int ENTITY_LOADS = 1;
+
+    private final MeterRegistry meterRegistry;
+    private final EntityManagerFactory entityManagerFactory;
+
+    static void statementPrepared() {
+        long[] counts = COUNTS.get();
+        if (counts != null) {
+            counts[STATEMENTS]++;
+        }
+    }
+
+    @PostConstruct
+    void registerEntityLoadListener() {
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> {
+            long[] counts = COUNTS.get();
+            if (counts != null) {
+                counts[ENTITY_LOADS]++;
+            }
+        });
+    }
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        registry.addInterceptor(this);
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        COUNTS.set(new long[2]);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request,
+                                               @NonNull HttpServletResponse response, @NonNull Object handler) {
+        COUNTS.remove();
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        long[] counts = COUNTS.get();
+        COUNTS.remove();
+        if (counts == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        record("hibernate.request.statements", "SQL statements prepared per request", uri, request, counts[STATEMENTS]);
+        record("hibernate.request.entity.loads", "Entities loaded per request", uri, request, counts[ENTITY_LOADS]);
+    }
+
+    private void record(String name, String description, String uri, HttpServletRequest request, long value) {
+        DistributionSummary.builder(name)
+                .description(description)
+                .tag("uri", uri)
+                .tag("method", request.getMethod())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(value);
+    }
+}
@@ -0,0 +1,57 @@
+package com.ecommerce.sbecom.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Migration path from IDENTITY to pooled sequences for databases that already hold rows.
+ * Hibernate creates the {@code *_seq} sequences starting at 1, which would collide with the existing ids, so
+ * every sequence is moved to at least MAX(id) before anything can insert. This runs once all singletons exist
+ * (so Hibernate has created the sequences) but before the context finishes refreshing, i.e. before the embedded
+ * web server accepts connections and before the runners such as initData.
+ * With the pooled optimizer the next block handed out is then (MAX(id), MAX(id) + 50]. Idempotent and safe to
+ * run on every start; it never moves a sequence backwards.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.app.sequences.alignOnStartup", havingValue = "true", matchIfMissing = true)
+public class IdSequenceInitializer implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    // table -> id column; every sequence is named <table>_seq
+    private static final Map<String, String> ID_COLUMNS = Map.of(
+            "addresses", "address_id",
+            "carts", "cart_id",
+            "cart_items", "cart_item_id",
+            "categories", "category_id",
+            "orders", "order_id",
+            "order_items", "order_item_id",
+            "payments", "payment_id",
+            "products", "product_id",
+            "roles", "role_id",
+            "users", "user_id");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        ID_COLUMNS.forEach((table, idColumn) -> {
+            String sequence = table + "_seq";
+            Long value = jdbcTemplate.queryForObject(
+                    "SELECT setval('" + sequence + "', GREATEST((SELECT COALESCE(MAX(" + idColumn + "), 0) FROM " + table + "), " +
+                            "(SELECT last_value FROM " + sequence + "), 1))",
+                    Long.class);
+            logger.debug("Sequence {} aligned to {}", sequence, value);
+        });
+    }
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.sbecom.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Registered through {@code hibernate.session_factory.statement_inspector}; counts every SQL statement Hibernate
+ * prepares against the current request (see {@link HibernateRequestMetrics}). The SQL itself is left untouched.
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        HibernateRequestMetrics.statementPrepared();
+        return sql;
+    }
+}
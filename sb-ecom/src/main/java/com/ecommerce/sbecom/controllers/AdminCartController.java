@@ -0,0 +1,30 @@
+package com.ecommerce.sbecom.controllers;
+
+import com.ecommerce.sbecom.services.CartService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminCartController {
+
+    private final CartService cartService;
+
+    // Streams every cart without loading them all: format=ndjson (default) gives one cart per line, json an array
+    @GetMapping("/carts/export")
+    public ResponseEntity<StreamingResponseBody> exportCarts(
+            @RequestParam(name = "format", defaultValue = "ndjson", required = false) String format) {
+        boolean ndjson = !format.equalsIgnoreCase("json");
+        StreamingResponseBody body = outputStream -> cartService.exportAllCarts(outputStream, ndjson);
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
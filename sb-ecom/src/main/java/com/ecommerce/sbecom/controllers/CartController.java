@@ -1,9 +1,7 @@
 package com.ecommerce.sbecom.controllers;
 
-import com.ecommerce.sbecom.models.Cart;
 import com.ecommerce.sbecom.payload.CartDTO;
 import com.ecommerce.sbecom.payload.CartItemDTO;
-import com.ecommerce.sbecom.repositories.CartRepository;
 import com.ecommerce.sbecom.services.CartService;
 import com.ecommerce.sbecom.utils.AuthUtil;
 import lombok.RequiredArgsConstructor;
@@ -22,7 +20,6 @@ public class CartController {
 
     private final CartService cartService;
     private final AuthUtil authUtil;
-    private final CartRepository cartRepository;
 
     @PostMapping("/cart/create")
     public ResponseEntity<String> createOrUpdateCart(
@@ -49,10 +46,8 @@ public class CartController {
     @GetMapping("/carts/users/cart")
     public ResponseEntity<CartDTO> getCartById() {
         String emailId = authUtil.loggedInEmail();
-        Cart cart = cartRepository.findCartByEmail(emailId);
-        log.info("Cart: {}", cart);
-        Long cartId = cart.getCartId();
-        CartDTO cartDTO = cartService.getCart(emailId, cartId);
+        CartDTO cartDTO = cartService.getCartByEmail(emailId);
+        log.info("Cart: {}", cartDTO.getCartId());
         return new ResponseEntity<>(cartDTO, HttpStatus.OK);
     }
 
@@ -1,22 +1,27 @@
 package com.ecommerce.sbecom.controllers;
 
+import com.ecommerce.sbecom.cache.CatalogVersion;
 import com.ecommerce.sbecom.config.AppConstants;
 import com.ecommerce.sbecom.payload.CategoryDTO;
 import com.ecommerce.sbecom.payload.CategoryResponse;
 import com.ecommerce.sbecom.services.CategoryService;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api")
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CatalogVersion catalogVersion;
 
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, CatalogVersion catalogVersion) {
         this.categoryService = categoryService;
+        this.catalogVersion = catalogVersion;
     }
 
     //    @RequestMapping(value = "/public/categories", method = RequestMethod.GET)
@@ -25,9 +30,20 @@ public class CategoryController {
             @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
             @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
             @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_CATEGORIES_BY, required = false) String sortBy,
-            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_ORDER, required = false) String sortOrder) {
-        CategoryResponse categoryResponse = categoryService.getAllCategories(pageNumber, pageSize, sortBy, sortOrder);
-        return new ResponseEntity<>(categoryResponse, HttpStatus.OK);
+            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_ORDER, required = false) String sortOrder,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "includeTotal", defaultValue = "false", required = false) boolean includeTotal,
+            WebRequest webRequest) {
+        // Unchanged categories since the client's copy: 304 without touching the database
+        if (webRequest.checkNotModified(catalogVersion.categoriesETag(), catalogVersion.categoriesLastModified())) {
+            return null;
+        }
+        CategoryResponse categoryResponse = cursor != null
+                ? categoryService.getAllCategoriesAfter(cursor, pageSize, sortBy, sortOrder, includeTotal)
+                : categoryService.getAllCategories(pageNumber, pageSize, sortBy, sortOrder);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(categoryResponse);
     }
 
     @PostMapping("/public/categories")
@@ -1,16 +1,28 @@
 package com.ecommerce.sbecom.controllers;
 
+import com.ecommerce.sbecom.cache.CatalogVersion;
 import com.ecommerce.sbecom.config.AppConstants;
+import com.ecommerce.sbecom.exceptions.APIExceptions;
 import com.ecommerce.sbecom.payload.ProductDTO;
 import com.ecommerce.sbecom.payload.ProductResponse;
+import com.ecommerce.sbecom.services.ProductImportService;
 import com.ecommerce.sbecom.services.ProductService;
+import com.ecommerce.sbecom.utils.SizeLimitedInputStream;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api")
@@ -18,6 +30,10 @@ import java.io.IOException;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final CatalogVersion catalogVersion;
+    @Value("${spring.app.import.maxBytes}")
+    private long importMaxBytes;
 
     @PostMapping("/admin/categories/{categoryId}/product")
     public ResponseEntity<ProductDTO> addProducts(@RequestBody ProductDTO productDTO, @PathVariable Long categoryId) {
@@ -25,6 +41,32 @@ public class ProductController {
         return new ResponseEntity<>(savedProductDTO, HttpStatus.CREATED);
     }
 
+    // Bulk import from a CSV (header row required) or NDJSON request body; progress and rejected rows stream back
+    // as NDJSON. The body is read straight from the request, so the small global multipart limits for image
+    // uploads do not apply and only spring.app.import.maxBytes caps it
+    @PostMapping("/admin/products/import")
+    public ResponseEntity<StreamingResponseBody> importProducts(
+            HttpServletRequest request,
+            @RequestParam(name = "format", required = false) String format) throws IOException {
+        long contentLength = request.getContentLengthLong();
+        if (contentLength > importMaxBytes) {
+            throw new APIExceptions("The upload is larger than the limit of " + importMaxBytes + " bytes");
+        }
+        String contentType = request.getContentType() == null ? "" : request.getContentType().toLowerCase(Locale.ROOT);
+        boolean csv = format != null
+                ? format.equalsIgnoreCase("csv")
+                : !(contentType.startsWith(MediaType.APPLICATION_NDJSON_VALUE) || contentType.startsWith("application/jsonl"));
+        InputStream requestBody = new SizeLimitedInputStream(request.getInputStream(), importMaxBytes);
+        StreamingResponseBody body = outputStream -> {
+            try (InputStream inputStream = requestBody) {
+                productImportService.importProducts(inputStream, csv, outputStream);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @GetMapping("/public/products")
     public ResponseEntity<ProductResponse> getAllProducts(
             @RequestParam(name = "keyword",required = false) String keyword,
@@ -32,25 +74,38 @@ public class ProductController {
             @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
             @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
             @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
-            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_ORDER, required = false) String sortOrder
+            @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_ORDER, required = false) String sortOrder,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "includeTotal", defaultValue = "false", required = false) boolean includeTotal,
+            WebRequest webRequest
     ) {
-        ProductResponse productResponse = productService
-                .getAllProducts(pageNumber, pageSize, sortBy, sortOrder,keyword,category);
-        return new ResponseEntity<>(productResponse, HttpStatus.OK);
+        if (notModified(webRequest)) {
+            return null;
+        }
+        ProductResponse productResponse = cursor != null
+                ? productService.getAllProductsAfter(cursor, pageSize, sortBy, sortOrder, keyword, category, includeTotal)
+                : productService.getAllProducts(pageNumber, pageSize, sortBy, sortOrder,keyword,category);
+        return revalidated(productResponse);
     }
 
     @GetMapping("/public/categories/{categoryId}/products")
-    public ResponseEntity<ProductResponse> getProductsByCategory(@PathVariable Long categoryId, @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber, @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize, @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy, @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_ORDER, required = false) String sortOrder) {
+    public ResponseEntity<ProductResponse> getProductsByCategory(@PathVariable Long categoryId, @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber, @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize, @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy, @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_ORDER, required = false) String sortOrder, WebRequest webRequest) {
+        if (notModified(webRequest)) {
+            return null;
+        }
         ProductResponse productResponse = productService
                 .searchByCategory(categoryId, pageNumber, pageSize, sortBy, sortOrder);
-        return new ResponseEntity<>(productResponse, HttpStatus.OK);
+        return revalidated(productResponse);
     }
 
     @GetMapping("/public/products/keyword/{keyword}")
-    public ResponseEntity<ProductResponse> getProductsByKeyword(@PathVariable String keyword, @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber, @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize, @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy, @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_ORDER, required = false) String sortOrder) {
+    public ResponseEntity<ProductResponse> getProductsByKeyword(@PathVariable String keyword, @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber, @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize, @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy, @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_ORDER, required = false) String sortOrder, WebRequest webRequest) {
+        if (notModified(webRequest)) {
+            return null;
+        }
         ProductResponse productResponse = productService
                 .searchProductByKeyword(keyword, pageNumber, pageSize, sortBy, sortOrder);
-        return new ResponseEntity<>(productResponse, HttpStatus.OK);
+        return revalidated(productResponse);
     }
 
     @PutMapping("/admin/product/{productId}")
@@ -70,4 +125,16 @@ public class ProductController {
         ProductDTO updatedProduct = productService.updateProductImage(productId, Image);
         return new ResponseEntity<>(updatedProduct, HttpStatus.OK);
     }
+
+    // Catalog unchanged since the client's copy: answer 304 before any database work or serialization
+    private boolean notModified(WebRequest webRequest) {
+        return webRequest.checkNotModified(catalogVersion.productsETag(), catalogVersion.productsLastModified());
+    }
+
+    // Clients may keep the page but must revalidate it, which the ETag makes cheap
+    private static ResponseEntity<ProductResponse> revalidated(ProductResponse productResponse) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(productResponse);
+    }
 }
@@ -0,0 +1,12 @@
+package com.ecommerce.sbecom.exceptions;
+
+public class ServiceBusyException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public ServiceBusyException() {
+    }
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.sbecom.mappers;
+
+import com.ecommerce.sbecom.models.Address;
+import com.ecommerce.sbecom.payload.AddressDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface AddressMapper {
+
+    AddressDTO toDTO(Address address);
+
+    @Mapping(target = "user", ignore = true)
+    Address toEntity(AddressDTO addressDTO);
+}
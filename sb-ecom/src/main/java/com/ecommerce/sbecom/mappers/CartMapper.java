@@ -0,0 +1,13 @@
+package com.ecommerce.sbecom.mappers;
+
+import com.ecommerce.sbecom.models.Cart;
+import com.ecommerce.sbecom.payload.CartDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring", uses = ProductMapper.class)
+public interface CartMapper {
+
+    @Mapping(target = "products", source = "cartItems")
+    CartDTO toDTO(Cart cart);
+}
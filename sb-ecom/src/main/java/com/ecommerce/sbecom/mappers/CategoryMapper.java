@@ -0,0 +1,15 @@
+package com.ecommerce.sbecom.mappers;
+
+import com.ecommerce.sbecom.models.Category;
+import com.ecommerce.sbecom.payload.CategoryDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface CategoryMapper {
+
+    CategoryDTO toDTO(Category category);
+
+    @Mapping(target = "products", ignore = true)
+    Category toEntity(CategoryDTO categoryDTO);
+}
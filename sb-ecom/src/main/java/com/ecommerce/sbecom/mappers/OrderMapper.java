@@ -0,0 +1,23 @@
+package com.ecommerce.sbecom.mappers;
+
+import com.ecommerce.sbecom.models.Order;
+import com.ecommerce.sbecom.models.OrderItems;
+import com.ecommerce.sbecom.models.Payment;
+import com.ecommerce.sbecom.payload.OrderDTO;
+import com.ecommerce.sbecom.payload.OrderItemDTO;
+import com.ecommerce.sbecom.payload.PaymentDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring", uses = ProductMapper.class)
+public interface OrderMapper {
+
+    @Mapping(target = "orderItem", ignore = true)
+    @Mapping(target = "addressId", source = "address.addressId")
+    OrderDTO toDTO(Order order);
+
+    OrderItemDTO toDTO(OrderItems orderItems);
+
+    @Mapping(target = "pgPayment", source = "pgPaymentId")
+    PaymentDTO toDTO(Payment payment);
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.sbecom.mappers;
+
+import com.ecommerce.sbecom.models.CartItem;
+import com.ecommerce.sbecom.models.Product;
+import com.ecommerce.sbecom.payload.ProductDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface ProductMapper {
+
+    ProductDTO toDTO(Product product);
+
+    @Mapping(target = "category", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "products", ignore = true)
+    Product toEntity(ProductDTO productDTO);
+
+    // A cart line is shown as its product, with the quantity taken from the line instead of the stock
+    default ProductDTO toDTO(CartItem cartItem) {
+        if (cartItem == null) {
+            return null;
+        }
+        ProductDTO productDTO = toDTO(cartItem.getProduct());
+        productDTO.setProductQuantity(cartItem.getQuantity());
+        return productDTO;
+    }
+}
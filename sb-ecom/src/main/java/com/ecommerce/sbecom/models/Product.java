@@ -11,11 +11,20 @@ import java.util.List;
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "products")
+// Unique per category; its index also answers ProductRepository.existsByCategoryCategoryIdAndProductName
+@Table(name = "products", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_products_category_name", columnNames = {"category_id", "product_name"})
+}, indexes = {
+        @Index(name = "idx_products_name_id", columnList = "product_name, product_id"),
+        @Index(name = "idx_products_price_id", columnList = "product_price, product_id"),
+        @Index(name = "idx_products_special_price_id", columnList = "special_price, product_id"),
+        @Index(name = "idx_products_category_id", columnList = "category_id, product_id")
+})
 @ToString
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long productId;
     private String productName;
     private String productDescription;
@@ -32,8 +41,11 @@ public class Product {
     @JoinColumn(name = "seller_id")
     private User user;
 
+    // Lazy and kept out of toString: a popular product can be in thousands of carts.
+    // Use CartItemRespository.findCartItemsByProductId when the cart lines are actually needed.
     @OneToMany(mappedBy = "product",
             cascade = {CascadeType.MERGE, CascadeType.PERSIST},
-            fetch = FetchType.EAGER)
+            fetch = FetchType.LAZY)
+    @ToString.Exclude
     private List<CartItem> products = new ArrayList<>();
 }
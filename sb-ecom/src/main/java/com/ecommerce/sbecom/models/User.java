@@ -1,5 +1,6 @@
 package com.ecommerce.sbecom.models;
 
+import com.ecommerce.sbecom.security.services.UserCacheEvictionListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -12,6 +13,7 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
+@EntityListeners(UserCacheEvictionListener.class)
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -23,7 +25,8 @@ import java.util.Set;
         })
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     @Column(name = "user_id")
     private Long userId;
 
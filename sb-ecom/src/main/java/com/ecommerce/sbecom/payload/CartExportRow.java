@@ -0,0 +1,10 @@
+package com.ecommerce.sbecom.payload;
+
+/**
+ * One cart line as read by the streaming cart export; a cart without lines comes back as a single row with
+ * null product columns. Rows arrive ordered by cart id and are folded into {@link CartDTO}s one cart at a time.
+ */
+public record CartExportRow(Long cartId, Double totalPrice, Long productId, String productName,
+                            String productDescription, String productImage, Integer quantity,
+                            Double productPrice, Double productDiscount, Double specialPrice) {
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.sbecom.payload;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,4 +17,6 @@ public class CategoryResponse {
     private Long totalElements;
     private Integer totalPages;
     private Boolean lastPage;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
 }
@@ -0,0 +1,20 @@
+package com.ecommerce.sbecom.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One product of a bulk catalog import (a CSV record or an NDJSON line). The category is given by name.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportRow {
+    private String productName;
+    private String productDescription;
+    private Integer productQuantity;
+    private Double productPrice;
+    private Double productDiscount;
+    private String categoryName;
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.sbecom.payload;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,4 +17,9 @@ public class ProductResponse {
     private Long totalElements;
     private Integer totalPages;
     private boolean lastPage;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+    // Set when the search matched more products than the index hands to a database-sorted query
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean truncated;
 }
@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface CartItemRespository extends JpaRepository<CartItem, Long> {
     @Query(
@@ -17,6 +19,18 @@ public interface CartItemRespository extends JpaRepository<CartItem, Long> {
     @Modifying
     void deleteCartItemByProductIdAndCartId(Long productId, Long cartId);
 
+    @Modifying
+    @Query("UPDATE CartItem ci SET ci.productPrice = ?2 WHERE ci.product.productId = ?1 AND ci.productPrice <> ?2")
+    int updateProductPrice(Long productId, double productPrice);
+
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.product.productId = ?1")
+    int deleteAllByProductId(Long productId);
+
+    // Product -> cart lines is no longer mapped eagerly; fetch it explicitly when it is really needed
+    @Query("SELECT ci FROM CartItem ci JOIN FETCH ci.cart WHERE ci.product.productId = ?1")
+    List<CartItem> findCartItemsByProductId(Long productId);
+
     @Modifying
     @Query("DELETE FROM CartItem ci WHERE ci.cart.cartId = ?1")
     void deleteAllByCartId(Long cartId);
@@ -1,11 +1,17 @@
 package com.ecommerce.sbecom.repositories;
 
 import com.ecommerce.sbecom.models.Cart;
+import com.ecommerce.sbecom.payload.CartExportRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
@@ -22,4 +28,38 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     @Query("SELECT DISTINCT c FROM Cart c LEFT JOIN FETCH c.cartItems ci LEFT JOIN FETCH ci.product p")
     List<Cart> findAllWithCartItems();
 
+    // Rows pulled from the database cursor per round trip by the streaming export
+    String EXPORT_FETCH_SIZE = "500";
+
+    /**
+     * Every cart line as a flat DTO row, read through a server-side cursor {@link #EXPORT_FETCH_SIZE} rows at a
+     * time. Nothing is attached to the persistence context, so memory stays flat however many carts there are.
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.ecommerce.sbecom.payload.CartExportRow(c.cartId, c.totalPrice, p.productId, p.productName, " +
+            "p.productDescription, p.productImage, ci.quantity, p.productPrice, p.productDiscount, p.specialPrice) " +
+            "FROM Cart c LEFT JOIN c.cartItems ci LEFT JOIN ci.product p ORDER BY c.cartId, ci.cartItemId")
+    Stream<CartExportRow> streamCartExportRows();
+
+    @Modifying
+    @Query("UPDATE Cart c SET c.totalPrice = 0.0 WHERE c.cartId = ?1")
+    void resetTotalPrice(Long cartId);
+
+    // Takes the product's line amount off the total of every cart holding it, in one statement
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE carts c SET total_price = c.total_price - ci.product_price * ci.quantity " +
+            "FROM cart_items ci WHERE ci.cart_id = c.cart_id AND ci.product_id = ?1", nativeQuery = true)
+    int subtractProductFromTotals(Long productId);
+
+    // Recomputes the total of every cart holding the product from its lines, in one statement
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE carts c SET total_price = COALESCE((SELECT SUM(ci.product_price * ci.quantity) " +
+            "FROM cart_items ci WHERE ci.cart_id = c.cart_id), 0) " +
+            "WHERE c.cart_id IN (SELECT ci.cart_id FROM cart_items ci WHERE ci.product_id = ?1)", nativeQuery = true)
+    int recomputeTotalsForProduct(Long productId);
+
 }
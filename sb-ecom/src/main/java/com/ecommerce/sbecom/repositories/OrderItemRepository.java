@@ -2,8 +2,25 @@ package com.ecommerce.sbecom.repositories;
 
 import com.ecommerce.sbecom.models.OrderItems;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItems, Long> {
+
+    // Copies every line of the cart into the order with a single INSERT ... SELECT.
+    // Each nextval claims a whole pooled block, so these ids never overlap the ones Hibernate hands out.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO order_items (order_item_id, product_id, order_id, quantity, discount, ordered_product_price) " +
+            "SELECT nextval('order_items_seq'), ci.product_id, ?1, ci.quantity, ci.discount, ci.product_price " +
+            "FROM cart_items ci WHERE ci.cart_id = ?2",
+            nativeQuery = true)
+    int insertFromCart(Long orderId, Long cartId);
+
+    @Query("SELECT oi FROM OrderItems oi JOIN FETCH oi.product p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.user " +
+            "WHERE oi.order.orderId = ?1 ORDER BY oi.orderItemId")
+    List<OrderItems> findByOrderIdWithProducts(Long orderId);
 }
@@ -0,0 +1,21 @@
+package com.ecommerce.sbecom.repositories;
+
+import com.ecommerce.sbecom.models.Product;
+import com.ecommerce.sbecom.payload.ProductDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Specification-filtered catalog reads that select straight into {@link ProductDTO}, the counterpart of the
+ * {@link ProductRepository#PRODUCT_DTO} queries for the dynamic filters of the listing endpoints.
+ */
+public interface ProductDTOQueries {
+
+    Page<ProductDTO> findDTOs(Specification<Product> specification, Pageable pageable);
+
+    List<ProductDTO> findDTOs(Specification<Product> specification, Sort sort, int limit);
+}
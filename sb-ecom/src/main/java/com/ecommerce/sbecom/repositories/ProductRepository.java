@@ -1,20 +1,75 @@
 package com.ecommerce.sbecom.repositories;
 
-import com.ecommerce.sbecom.models.Category;
 import com.ecommerce.sbecom.models.Product;
+import com.ecommerce.sbecom.payload.ProductDTO;
+import com.ecommerce.sbecom.search.ProductSearchView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
-    Page<Product> findByCategoryOrderByProductPriceAsc(Category categoryId, Pageable pageDetails);
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductDTOQueries {
+    // Catalog reads select straight into ProductDTO, so no Product entity (or its associations) gets loaded
+    String PRODUCT_DTO = "new com.ecommerce.sbecom.payload.ProductDTO(p.productId, p.productName, " +
+            "p.productDescription, p.productImage, p.productQuantity, p.productPrice, p.productDiscount, p.specialPrice)";
+    // Ordered quantity per product of one cart (?1), for the checkout stock statements
+    String CART_QUANTITIES = "SELECT ci.product_id, SUM(ci.quantity) AS quantity FROM cart_items ci " +
+            "WHERE ci.cart_id = ?1 GROUP BY ci.product_id";
+
+    @Query(value = "SELECT " + PRODUCT_DTO + " FROM Product p WHERE p.category.categoryId = ?1 ORDER BY p.productPrice ASC",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.category.categoryId = ?1")
+    Page<ProductDTO> findDTOsByCategoryId(Long categoryId, Pageable pageDetails);
 
     List<Product> findByProductName(String keyword);
 
-    Page<Product> findByProductNameLikeIgnoreCase(String keyword, Pageable pageDetails);
+    boolean existsByCategoryCategoryIdAndProductName(Long categoryId, String productName);
+
+    @Query("SELECT p.productName FROM Product p WHERE p.category.categoryId = ?1 AND p.productName IN ?2")
+    List<String> findExistingProductNames(Long categoryId, Collection<String> productNames);
+
+    @Query(value = "SELECT " + PRODUCT_DTO + " FROM Product p WHERE LOWER(p.productName) LIKE LOWER(?1)",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE LOWER(p.productName) LIKE LOWER(?1)")
+    Page<ProductDTO> findDTOsByProductNameLike(String keyword, Pageable pageDetails);
+
+    @Query("SELECT " + PRODUCT_DTO + " FROM Product p WHERE p.productId IN ?1")
+    List<ProductDTO> findDTOsByIds(Collection<Long> productIds);
+
+    @Query(value = "SELECT " + PRODUCT_DTO + " FROM Product p WHERE p.productId IN ?1",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.productId IN ?1")
+    Page<ProductDTO> findDTOsByIds(Collection<Long> productIds, Pageable pageDetails);
+
+    /**
+     * Row-locks every product in the cart, always in product id order so that concurrent checkouts over
+     * overlapping carts queue up instead of deadlocking. Lines of the same product are summed first. Returns one
+     * entry per distinct product: the product name when the stock cannot cover the summed quantity, null otherwise.
+     */
+    @Query(value = "SELECT CASE WHEN p.product_quantity < l.quantity THEN p.product_name END " +
+            "FROM products p JOIN (" + CART_QUANTITIES + ") l ON l.product_id = p.product_id " +
+            "ORDER BY p.product_id FOR UPDATE OF p", nativeQuery = true)
+    List<String> lockStockForCart(Long cartId);
+
+    /**
+     * Takes the ordered quantities of the cart off the stock in one statement (Postgres UPDATE ... FROM), one row
+     * per distinct product with its lines summed; UPDATE ... FROM would otherwise apply only one of several lines
+     * of the same product. A product is only updated while the stock covers it, so the stock never goes negative;
+     * callers compare the returned row count with the number of distinct products.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE products p SET product_quantity = p.product_quantity - l.quantity " +
+            "FROM (" + CART_QUANTITIES + ") l WHERE l.product_id = p.product_id " +
+            "AND p.product_quantity >= l.quantity", nativeQuery = true)
+    int decrementStockForCart(Long cartId);
+
+    @Query("SELECT p.productId AS productId, p.productName AS productName, " +
+            "p.productDescription AS productDescription, c.categoryId AS categoryId " +
+            "FROM Product p LEFT JOIN p.category c WHERE p.productId > ?1 ORDER BY p.productId")
+    List<ProductSearchView> findSearchRowsAfter(Long afterId, Pageable pageable);
 }
@@ -2,12 +2,17 @@ package com.ecommerce.sbecom.repositories;
 
 import com.ecommerce.sbecom.models.AppRole;
 import com.ecommerce.sbecom.models.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Long> {
+    // Natural-id lookup: the query cache keeps name -> id, the roles region keeps the entity
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Role> findByRoleName(AppRole roleName);
 }
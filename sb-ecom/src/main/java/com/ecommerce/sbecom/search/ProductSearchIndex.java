@@ -0,0 +1,518 @@
+package com.ecommerce.sbecom.search;
+
+import com.ecommerce.sbecom.models.Category;
+import com.ecommerce.sbecom.models.Product;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over product name, description and category name.
+ * <p>
+ * Every query token is matched exactly, as a prefix of an indexed term and within one edit of an indexed term,
+ * and all tokens must match for a product to be returned. Results are ranked by field weight
+ * (name &gt; category &gt; description), match kind and term rarity. Writes are serialized on the index, reads
+ * are lock-free. Until the initial build finishes {@link #isReady()} is false and callers fall back to the database.
+ * <p>
+ * The index lives in this JVM only. Each node builds its own copy at startup and then follows the writes it serves
+ * itself; changes made through another node (or directly in the database) are not seen here until a restart.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float EXACT_BOOST = 1f;
+    private static final float PREFIX_BOOST = 0.7f;
+    private static final float FUZZY_BOOST = 0.5f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // term -> (productId -> summed weight of the fields containing the term)
+    private final ConcurrentSkipListMap<String, Map<Long, Float>> productTerms = new ConcurrentSkipListMap<>();
+    // term -> ids of the categories whose name contains the term
+    private final ConcurrentSkipListMap<String, Set<Long>> categoryTerms = new ConcurrentSkipListMap<>();
+    // single-character-deletion variant -> indexed terms producing it, for edit distance 1 lookups
+    private final Map<String, Set<String>> deletionVariants = new ConcurrentHashMap<>();
+    private final Map<Long, IndexedProduct> products = new ConcurrentHashMap<>();
+    private final Map<Long, String> categoryNames = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> categoryProducts = new ConcurrentHashMap<>();
+    // products changed by live writes while the initial build runs; the build must not overwrite them
+    private final Set<Long> touchedDuringBuild = new HashSet<>();
+
+    private final int maxExpansions;
+    private final int maxResults;
+    private final Timer searchTimer;
+    private volatile boolean ready;
+    private boolean building;
+
+    public ProductSearchIndex(@Value("${spring.app.search.maxExpansions}") int maxExpansions,
+                              @Value("${spring.app.search.maxResults}") int maxResults,
+                              MeterRegistry meterRegistry) {
+        this.maxExpansions = maxExpansions;
+        this.maxResults = maxResults;
+        this.searchTimer = Timer.builder("search.query")
+                .tag("index", "products")
+                .register(meterRegistry);
+        Gauge.builder("search.index.documents", products, Map::size)
+                .tag("index", "products")
+                .register(meterRegistry);
+        Gauge.builder("search.index.terms", productTerms, Map::size)
+                .tag("index", "products")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Searches for the products matching every token of the keyword, optionally restricted to the categories whose
+     * name matches {@code category} as a SQL LIKE pattern (the same test the database path applies). At most
+     * {@code spring.app.search.maxResults} ids are returned, best match first; the result still reports how many
+     * products matched in total.
+     */
+    public SearchResult search(String keyword, String category) {
+        return search(keyword, category, maxResults);
+    }
+
+    /**
+     * Same as {@link #search(String, String)} but returns the best {@code limit} ids, e.g. everything up to the end
+     * of the requested page, whatever the configured maximum.
+     */
+    public SearchResult search(String keyword, String category, int limit) {
+        return searchTimer.record(() -> rank(keyword, category, limit));
+    }
+
+    public synchronized void index(Product product) {
+        Category category = product.getCategory();
+        if (category != null) {
+            putCategoryName(category.getCategoryId(), category.getCategoryName());
+        }
+        markTouched(product.getProductId());
+        indexProduct(product.getProductId(), product.getProductName(), product.getProductDescription(),
+                category == null ? null : category.getCategoryId());
+    }
+
+    public synchronized void remove(Long productId) {
+        markTouched(productId);
+        removeProduct(productId);
+    }
+
+    public synchronized void putCategory(Long categoryId, String categoryName) {
+        putCategoryName(categoryId, categoryName);
+    }
+
+    /**
+     * Drops a category together with its products, matching the cascade on {@link Category#getProducts()}.
+     */
+    public synchronized void removeCategory(Long categoryId) {
+        Set<Long> productIds = categoryProducts.remove(categoryId);
+        if (productIds != null) {
+            for (Long productId : List.copyOf(productIds)) {
+                markTouched(productId);
+                removeProduct(productId);
+            }
+        }
+        String previous = categoryNames.remove(categoryId);
+        if (previous != null) {
+            unindexCategoryName(categoryId, previous);
+        }
+    }
+
+    synchronized void beginBuild() {
+        building = true;
+        ready = false;
+        touchedDuringBuild.clear();
+    }
+
+    synchronized void indexCategoriesFromBuild(Collection<Category> categories) {
+        for (Category category : categories) {
+            if (!categoryNames.containsKey(category.getCategoryId())) {
+                putCategoryName(category.getCategoryId(), category.getCategoryName());
+            }
+        }
+    }
+
+    synchronized void indexFromBuild(List<? extends ProductSearchView> rows) {
+        for (ProductSearchView row : rows) {
+            if (!touchedDuringBuild.contains(row.getProductId())) {
+                indexProduct(row.getProductId(), row.getProductName(), row.getProductDescription(), row.getCategoryId());
+            }
+        }
+    }
+
+    synchronized void finishBuild() {
+        building = false;
+        touchedDuringBuild.clear();
+        ready = true;
+    }
+
+    synchronized void abortBuild() {
+        building = false;
+        touchedDuringBuild.clear();
+    }
+
+    int size() {
+        return products.size();
+    }
+
+    private void markTouched(Long productId) {
+        if (building) {
+            touchedDuringBuild.add(productId);
+        }
+    }
+
+    private void indexProduct(Long productId, String name, String description, Long categoryId) {
+        removeProduct(productId);
+        Map<String, Float> weights = new HashMap<>();
+        addField(weights, name, NAME_WEIGHT);
+        addField(weights, description, DESCRIPTION_WEIGHT);
+        weights.forEach((term, weight) -> {
+            Map<Long, Float> postings = productTerms.get(term);
+            if (postings == null) {
+                postings = new ConcurrentHashMap<>();
+                productTerms.put(term, postings);
+                registerTerm(term);
+            }
+            postings.put(productId, weight);
+        });
+        if (categoryId != null) {
+            categoryProducts.computeIfAbsent(categoryId, id -> ConcurrentHashMap.newKeySet()).add(productId);
+        }
+        products.put(productId, new IndexedProduct(categoryId, weights.keySet().toArray(String[]::new)));
+    }
+
+    private void removeProduct(Long productId) {
+        IndexedProduct existing = products.remove(productId);
+        if (existing == null) {
+            return;
+        }
+        for (String term : existing.terms()) {
+            Map<Long, Float> postings = productTerms.get(term);
+            if (postings != null) {
+                postings.remove(productId);
+                if (postings.isEmpty()) {
+                    productTerms.remove(term);
+                    unregisterTermIfUnused(term);
+                }
+            }
+        }
+        if (existing.categoryId() != null) {
+            Set<Long> siblings = categoryProducts.get(existing.categoryId());
+            if (siblings != null) {
+                siblings.remove(productId);
+            }
+        }
+    }
+
+    private void putCategoryName(Long categoryId, String categoryName) {
+        if (categoryId == null || categoryName == null) {
+            return;
+        }
+        String previous = categoryNames.put(categoryId, categoryName);
+        if (categoryName.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            unindexCategoryName(categoryId, previous);
+        }
+        for (String term : new LinkedHashSet<>(tokenize(categoryName))) {
+            Set<Long> categoryIds = categoryTerms.get(term);
+            if (categoryIds == null) {
+                categoryIds = ConcurrentHashMap.newKeySet();
+                categoryTerms.put(term, categoryIds);
+                registerTerm(term);
+            }
+            categoryIds.add(categoryId);
+        }
+    }
+
+    private void unindexCategoryName(Long categoryId, String categoryName) {
+        for (String term : new LinkedHashSet<>(tokenize(categoryName))) {
+            Set<Long> categoryIds = categoryTerms.get(term);
+            if (categoryIds != null) {
+                categoryIds.remove(categoryId);
+                if (categoryIds.isEmpty()) {
+                    categoryTerms.remove(term);
+                    unregisterTermIfUnused(term);
+                }
+            }
+        }
+    }
+
+    private void registerTerm(String term) {
+        if (term.length() >= MIN_FUZZY_LENGTH) {
+            for (String variant : deletionVariants(term)) {
+                deletionVariants.computeIfAbsent(variant, v -> ConcurrentHashMap.newKeySet()).add(term);
+            }
+        }
+    }
+
+    private void unregisterTermIfUnused(String term) {
+        if (term.length() < MIN_FUZZY_LENGTH || productTerms.containsKey(term) || categoryTerms.containsKey(term)) {
+            return;
+        }
+        for (String variant : deletionVariants(term)) {
+            Set<String> terms = deletionVariants.get(variant);
+            if (terms != null) {
+                terms.remove(term);
+                if (terms.isEmpty()) {
+                    deletionVariants.remove(variant);
+                }
+            }
+        }
+    }
+
+    private SearchResult rank(String keyword, String category, int limit) {
+        List<String> tokens = tokenize(keyword).stream().distinct().toList();
+        if (tokens.isEmpty()) {
+            return SearchResult.EMPTY;
+        }
+        Set<Long> allowedCategories = null;
+        if (category != null && !category.isEmpty()) {
+            Pattern categoryPattern = likePattern(category);
+            allowedCategories = new HashSet<>();
+            for (Map.Entry<Long, String> entry : categoryNames.entrySet()) {
+                if (categoryPattern.matcher(entry.getValue()).matches()) {
+                    allowedCategories.add(entry.getKey());
+                }
+            }
+            if (allowedCategories.isEmpty()) {
+                return SearchResult.EMPTY;
+            }
+        }
+
+        Map<Long, Float> scores = null;
+        for (String token : tokens) {
+            Map<Long, Float> tokenScores = scoreToken(token);
+            scores = scores == null ? tokenScores : intersect(scores, tokenScores);
+            if (scores.isEmpty()) {
+                return SearchResult.EMPTY;
+            }
+        }
+
+        // Only the best `limit` matches are kept and sorted; the rest are just counted
+        Comparator<Map.Entry<Long, Float>> ranking = Map.Entry.<Long, Float>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey());
+        int keep = Math.max(1, Math.min(limit, scores.size()));
+        PriorityQueue<Map.Entry<Long, Float>> best = new PriorityQueue<>(keep, ranking.reversed());
+        int total = 0;
+        for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+            if (allowedCategories != null && !inCategories(entry.getKey(), allowedCategories)) {
+                continue;
+            }
+            total++;
+            if (best.size() < limit) {
+                best.add(entry);
+            } else if (limit > 0 && ranking.compare(entry, best.peek()) < 0) {
+                best.poll();
+                best.add(entry);
+            }
+        }
+        List<Long> ids = best.stream()
+                .sorted(ranking)
+                .map(Map.Entry::getKey)
+                .toList();
+        return new SearchResult(ids, total);
+    }
+
+    private boolean inCategories(Long productId, Set<Long> categoryIds) {
+        IndexedProduct product = products.get(productId);
+        return product != null && categoryIds.contains(product.categoryId());
+    }
+
+    private Map<Long, Float> scoreToken(String token) {
+        Map<Long, Float> scores = new HashMap<>();
+        int documents = Math.max(1, products.size());
+        expand(token).forEach((term, boost) -> {
+            Map<Long, Float> postings = productTerms.get(term);
+            if (postings != null) {
+                float idf = idf(documents, postings.size());
+                postings.forEach((productId, weight) -> scores.merge(productId, boost * weight * idf, Math::max));
+            }
+            Set<Long> categoryIds = categoryTerms.get(term);
+            if (categoryIds != null) {
+                for (Long categoryId : categoryIds) {
+                    Set<Long> productIds = categoryProducts.get(categoryId);
+                    if (productIds == null || productIds.isEmpty()) {
+                        continue;
+                    }
+                    float score = boost * CATEGORY_WEIGHT * idf(documents, productIds.size());
+                    for (Long productId : productIds) {
+                        scores.merge(productId, score, Math::max);
+                    }
+                }
+            }
+        });
+        return scores;
+    }
+
+    /**
+     * Maps the token to the indexed terms it matches and the boost of the best match kind for each.
+     */
+    private Map<String, Float> expand(String token) {
+        Map<String, Float> terms = new HashMap<>();
+        terms.put(token, EXACT_BOOST);
+        if (token.length() >= MIN_PREFIX_LENGTH) {
+            addPrefixMatches(terms, productTerms, token);
+            addPrefixMatches(terms, categoryTerms, token);
+        }
+        if (token.length() >= MIN_FUZZY_LENGTH) {
+            for (String variant : deletionVariants(token)) {
+                Set<String> candidates = deletionVariants.get(variant);
+                if (candidates == null) {
+                    continue;
+                }
+                for (String candidate : candidates) {
+                    if (!terms.containsKey(candidate) && withinOneEdit(token, candidate)) {
+                        terms.put(candidate, FUZZY_BOOST);
+                    }
+                }
+            }
+        }
+        return terms;
+    }
+
+    private void addPrefixMatches(Map<String, Float> terms, ConcurrentSkipListMap<String, ?> dictionary, String prefix) {
+        int expansions = 0;
+        for (String term : dictionary.subMap(prefix, false, prefix + Character.MAX_VALUE, false).keySet()) {
+            if (expansions++ >= maxExpansions) {
+                break;
+            }
+            terms.putIfAbsent(term, PREFIX_BOOST);
+        }
+    }
+
+    private static Map<Long, Float> intersect(Map<Long, Float> left, Map<Long, Float> right) {
+        Map<Long, Float> smaller = left.size() <= right.size() ? left : right;
+        Map<Long, Float> larger = smaller == left ? right : left;
+        Map<Long, Float> result = new HashMap<>();
+        smaller.forEach((productId, score) -> {
+            Float other = larger.get(productId);
+            if (other != null) {
+                result.put(productId, score + other);
+            }
+        });
+        return result;
+    }
+
+    private static float idf(int documents, int documentFrequency) {
+        return (float) Math.log(1 + (double) documents / documentFrequency);
+    }
+
+    private static void addField(Map<String, Float> weights, String text, float weight) {
+        for (String term : new LinkedHashSet<>(tokenize(text))) {
+            weights.merge(term, weight, Float::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * SQL LIKE semantics as PostgreSQL applies them to the category filter: case-sensitive, {@code %} and
+     * {@code _} as wildcards and backslash as the escape character.
+     */
+    static Pattern likePattern(String like) {
+        StringBuilder regex = new StringBuilder(like.length() + 8);
+        for (int i = 0; i < like.length(); i++) {
+            char c = like.charAt(i);
+            if (c == '\\' && i + 1 < like.length()) {
+                regex.append(Pattern.quote(String.valueOf(like.charAt(++i))));
+            } else if (c == '%') {
+                regex.append(".*");
+            } else if (c == '_') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    private static Set<String> deletionVariants(String term) {
+        Set<String> variants = new HashSet<>();
+        variants.add(term);
+        for (int i = 0; i < term.length(); i++) {
+            variants.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return variants;
+    }
+
+    /**
+     * True when the strings differ by at most one insertion, deletion, substitution or adjacent transposition.
+     */
+    static boolean withinOneEdit(String a, String b) {
+        int la = a.length();
+        int lb = b.length();
+        if (Math.abs(la - lb) > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < la && i < lb && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (la == lb) {
+            if (i == la || a.regionMatches(i + 1, b, i + 1, la - i - 1)) {
+                return true;
+            }
+            return i + 1 < la
+                    && a.charAt(i) == b.charAt(i + 1)
+                    && a.charAt(i + 1) == b.charAt(i)
+                    && a.regionMatches(i + 2, b, i + 2, la - i - 2);
+        }
+        return la > lb
+                ? a.regionMatches(i + 1, b, i, lb - i)
+                : b.regionMatches(i + 1, a, i, la - i);
+    }
+
+    private record IndexedProduct(Long categoryId, String[] terms) {
+    }
+
+    /**
+     * Ids of the best matches, best first, and the number of products that matched in total.
+     */
+    public record SearchResult(List<Long> ids, int totalMatches) {
+
+        static final SearchResult EMPTY = new SearchResult(List.of(), 0);
+
+        public boolean isEmpty() {
+            return totalMatches == 0;
+        }
+
+        // More products matched than ids were returned
+        public boolean truncated() {
+            return totalMatches > ids.size();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.sbecom.search;
+
+import com.ecommerce.sbecom.repositories.CategoryRepository;
+import com.ecommerce.sbecom.repositories.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the {@link ProductSearchIndex} in the background once the application is up, reading the products
+ * table in id-ordered chunks. Live product writes go straight to the index, so the build is done only once.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndexer.class);
+
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    @Value("${spring.app.search.buildBatchSize}")
+    private int buildBatchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Thread.ofPlatform()
+                .name("product-search-indexer")
+                .daemon()
+                .start(this::build);
+    }
+
+    void build() {
+        long start = System.nanoTime();
+        productSearchIndex.beginBuild();
+        try {
+            productSearchIndex.indexCategoriesFromBuild(categoryRepository.findAll());
+            long afterId = 0L;
+            List<ProductSearchView> rows;
+            do {
+                rows = productRepository.findSearchRowsAfter(afterId, PageRequest.of(0, buildBatchSize));
+                productSearchIndex.indexFromBuild(rows);
+                if (!rows.isEmpty()) {
+                    afterId = rows.get(rows.size() - 1).getProductId();
+                }
+            } while (rows.size() == buildBatchSize);
+            productSearchIndex.finishBuild();
+            logger.info("Product search index built with {} products in {} ms", productSearchIndex.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            productSearchIndex.abortBuild();
+            logger.error("Product search index build failed, keyword search stays on the database: {}", e.getMessage());
+        }
+    }
+}
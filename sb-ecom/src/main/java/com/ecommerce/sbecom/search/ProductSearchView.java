@@ -0,0 +1,14 @@
+package com.ecommerce.sbecom.search;
+
+/**
+ * Slim projection of the product columns the search index needs, used to (re)build it in id-ordered chunks.
+ */
+public interface ProductSearchView {
+    Long getProductId();
+
+    String getProductName();
+
+    String getProductDescription();
+
+    Long getCategoryId();
+}
@@ -8,7 +8,12 @@ import com.ecommerce.sbecom.repositories.UserRepository;
 import com.ecommerce.sbecom.security.jwt.AuthEntryPoint;
 import com.ecommerce.sbecom.security.jwt.AuthTokenFilter;
 import com.ecommerce.sbecom.security.services.UserDetailsServiceImpl;
+import com.ecommerce.sbecom.security.services.UserPrincipalCache;
+import com.ecommerce.sbecom.security.services.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -20,7 +25,6 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -77,14 +81,17 @@ public class WebSecurityConfig {
      * 4. Success hone pe Authentication object return karega
      */
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
 
         // UserDetailsService set karo - database se user load karne ke liye
         authenticationProvider.setUserDetailsService(userDetailsService);
 
         // PasswordEncoder set karo - password comparison ke liye
-        authenticationProvider.setPasswordEncoder(passwordEncoder());
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
+
+        // Work factor badalne pe login ke time stored hash re-hash ho jata hai
+        authenticationProvider.setUserDetailsPasswordService(userDetailsService);
 
         return authenticationProvider;
     }
@@ -121,10 +128,15 @@ public class WebSecurityConfig {
      * - Salted hashing (har password ka unique hash)
      * - Slow algorithm (brute force attacks ko difficult banata hai)
      * - Industry standard for password hashing
+     * <p>
+     * Hashing apne bounded, CPU-sized pool pe chalta hai (BoundedPasswordEncoder) - queue full hone pe 503
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${spring.app.passwordHashing.strength}") int strength,
+                                           @Value("${spring.app.passwordHashing.threads}") int threads,
+                                           @Value("${spring.app.passwordHashing.queueCapacity}") int queueCapacity,
+                                           MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(strength, threads, queueCapacity, meterRegistry);
     }
 
     // ====== SECURITY FILTER CHAIN BEAN ======
@@ -138,7 +150,8 @@ public class WebSecurityConfig {
      * New: SecurityFilterChain bean (current approach)
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   DaoAuthenticationProvider authenticationProvider) throws Exception {
 
         // ====== CSRF PROTECTION DISABLE ======
         /**
@@ -182,6 +195,10 @@ public class WebSecurityConfig {
          * Define karta hai ki kaun sa endpoint public hai aur kaun sa secured
          */
         http.authorizeHttpRequests(authorizeRequest -> authorizeRequest
+                // Streaming responses (import/export) ka async dispatch - original request pe check ho chuka hai,
+                // aur JWT filter async dispatch pe dobara nahi chalta
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Public endpoints - Koi bhi access kar sakta hai (no authentication required)
                 .requestMatchers("/api/public/**").permitAll()
                 .requestMatchers("/api/auth/**").permitAll() // Login/Register endpoints
@@ -193,6 +210,11 @@ public class WebSecurityConfig {
                 .requestMatchers("/api/test/**").permitAll() // Test endpoints
                 .requestMatchers("/images/**").permitAll() // Static image files
                 .requestMatchers("/h2-console/**").permitAll() // H2 database
+                .requestMatchers("/actuator/health").permitAll() // Load balancer health check ke liye
+                // Prometheus metrics aur baaki actuator endpoints sirf ADMIN ke liye (scraper admin JWT bhejega)
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
+                // Admin endpoints (product import, cart export) sirf ADMIN role ke liye
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
 
                 // Secured endpoints - Authentication required
                 .anyRequest().authenticated() // Baaki sab endpoints authenticated users ke liye
@@ -203,7 +225,7 @@ public class WebSecurityConfig {
          * Custom authentication provider register karo
          * Ye DaoAuthenticationProvider use karega user authentication ke liye
          */
-        http.authenticationProvider(authenticationProvider());
+        http.authenticationProvider(authenticationProvider);
 
         // ====== JWT FILTER ======
         /**
@@ -264,12 +286,13 @@ public class WebSecurityConfig {
                 "/configuration/security", // Security configuration
                 "/swagger-ui.html", // Old Swagger UI
                 "webjars/**" // WebJars (frontend libraries)
+                // "/images/**" yahan nahi: wo permitAll hai, filter chain chalegi taaki security headers bhi lagen
         ));
     }
 
     @Bean
     public CommandLineRunner initData(RoleRepository roleRepository, UserRepository userRepository,
-                                      PasswordEncoder passwordEncoder) {
+                                      PasswordEncoder passwordEncoder, UserPrincipalCache userPrincipalCache) {
         return args -> {
             // Retrieve or create roles
             Role userRole = roleRepository.findByRoleName(AppRole.ROLE_USER)
@@ -325,6 +348,11 @@ public class WebSecurityConfig {
                 admin.setRoles(adminRoles);
                 userRepository.save(admin);
             });
+
+            // Only the roles collection changed above, which does not fire @PostUpdate on User
+            userPrincipalCache.evict("user1");
+            userPrincipalCache.evict("seller1");
+            userPrincipalCache.evict("admin");
         };
     }
 }
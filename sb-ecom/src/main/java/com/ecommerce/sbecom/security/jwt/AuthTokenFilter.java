@@ -2,7 +2,11 @@ package com.ecommerce.sbecom.security.jwt;
 
 // Import necessary Java and Spring Framework classes
 
+import com.ecommerce.sbecom.security.services.UserDetailsImpl;
 import com.ecommerce.sbecom.security.services.UserDetailsServiceImpl;
+import com.ecommerce.sbecom.security.services.UserPrincipalCache;
+import com.ecommerce.sbecom.utils.RequestUserContext;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,7 +16,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -89,6 +92,23 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
     private final UserDetailsServiceImpl userDetailsService;
 
+    /**
+     * UserPrincipalCache - Recently authenticated users ka bounded cache
+     * <p>
+     * Har request pe users table (aur EAGER roles) query na ho, isliye principal yahan se milta hai.
+     * Cache miss pe hi userDetailsService call hota hai. TTL ke baad ya user update hone pe entry evict hoti hai.
+     */
+
+    private final UserPrincipalCache userPrincipalCache;
+
+    /**
+     * RequestUserContext - Is request ke liye resolved user
+     * <p>
+     * Filter yahan principal ek baar set karta hai, phir AuthUtil ko dobara users table query nahi karni padti.
+     */
+
+    private final RequestUserContext requestUserContext;
+
     /**
      * doFilterInternal() - Main Filter Method (Core Logic)
      * <p>
@@ -163,8 +183,8 @@ public class AuthTokenFilter extends OncePerRequestFilter {
              * - Token present hai ya nahi
              * - Public endpoints ke liye token nahi hota (login, register)
              *
-             * Condition 2: jwtUtils.validateJwtToken(jwt)
-             * - Token valid hai ya nahi
+             * Condition 2: jwtUtils.getClaimsIfValid(jwt) != null
+             * - Token valid hai ya nahi (signature sirf ek baar verify hota hai, claims wahi se milte hain)
              * - Checks:
              *   a) Signature valid hai? (token tampered toh nahi?)
              *   b) Token expired toh nahi?
@@ -174,7 +194,8 @@ public class AuthTokenFilter extends OncePerRequestFilter {
              * Agar dono conditions true hain, tab hi user authenticate karenge
              * Otherwise, authentication skip ho jayega (unauthenticated request)
              */
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
+            Claims claims = jwt != null ? jwtUtils.getClaimsIfValid(jwt) : null;
+            if (claims != null) {
 
                 // ====== STEP 3: USERNAME EXTRACT KARO JWT SE ======
                 /**
@@ -187,16 +208,17 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                  *   "exp": 1635209856           ← Expiration time
                  * }
                  *
-                 * jwtUtils.getUsernameFromJwtToken(jwt) method "sub" claim return karta hai
+                 * Already verified claims se "sub" claim lete hain - token dobara parse nahi hota
                  *
                  * Example: username = "rahul@example.com"
                  */
-                String username = jwtUtils.getUsernameFromJwtToken(jwt);
+                String username = claims.getSubject();
                 // ====== STEP 4: DATABASE SE USER DETAILS LOAD KARO ======
                 /**
                  * Username se complete user details load karo database se
                  *
                  * Process:
+                 * 0. Pehle UserPrincipalCache check hota hai - hit pe DB call skip
                  * 1. userDetailsService.loadUserByUsername("rahul@example.com") call
                  * 2. UserDetailsServiceImpl execute hota hai
                  * 3. UserRepository se user fetch hota hai
@@ -213,7 +235,9 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                  * - Roles/permissions database se load karne padte hain
                  * - Latest user status check hota hai (disabled/locked users)
                  */
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetailsImpl userDetails = userPrincipalCache.get(username,
+                        name -> (UserDetailsImpl) userDetailsService.loadUserByUsername(name));
+                requestUserContext.setPrincipal(userDetails);
 
                 // ====== STEP 5: AUTHENTICATION TOKEN CREATE KARO ======
                 /**
@@ -1,12 +1,18 @@
 package com.ecommerce.sbecom.security.jwt;
 
 import com.ecommerce.sbecom.security.services.UserDetailsImpl;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
@@ -18,6 +24,7 @@ import org.springframework.web.util.WebUtils;
 
 import javax.crypto.SecretKey;
 import java.security.Key;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
 
@@ -39,6 +46,54 @@ public class JwtUtils {
     @Value("${spring.app.jwtCookieName}")
     private String jwtCookie;
 
+    // Upper bound on how long a verified token stays in the cache, and how many tokens are kept
+    @Value("${spring.app.jwtVerifiedCache.ttlSeconds}")
+    private long verifiedTokenTtlSeconds;
+
+    @Value("${spring.app.jwtVerifiedCache.maxSize}")
+    private long verifiedTokenMaxSize;
+
+    // Signing key and parser are derived once from the secret; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    // Recently verified tokens -> their claims, kept until the token expires (or the TTL above). Keyed on the
+    // token itself: hashing it first would cost about as much as the HMAC check the cache is there to skip
+    private Cache<String, Claims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedTokenMaxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        long maxTtl = Duration.ofSeconds(verifiedTokenTtlSeconds).toNanos();
+                        Date expiration = claims.getExpiration();
+                        if (expiration == null) {
+                            return maxTtl;
+                        }
+                        long untilExpiry = Duration.between(Instant.now(), expiration.toInstant()).toNanos();
+                        return Math.max(0, Math.min(maxTtl, untilExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     /**
      * Extracts the JWT token from the Authorization header of an HTTP request.
      * The expected format is: "Bearer <token>"
@@ -117,44 +172,49 @@ public class JwtUtils {
      */
     public String getUsernameFromJwtToken(String token) {
         // Parse the token, verify its signature, and extract the subject (username)
-        return Jwts.parser()
-                .verifyWith((SecretKey) key())  // Verify using our secret key
-                .build()
-                .parseSignedClaims(token)       // Parse and verify the token
-                .getPayload()                   // Get the token payload
-                .getSubject();                  // Extract the subject (username)
+        return verifyAndGetClaims(token).getSubject();
     }
 
     /**
-     * Generates a cryptographic key from the base64-encoded secret.
-     * This key is used for both signing and verifying JWT tokens.
+     * Verifies a JWT token once and returns its claims.
+     * Recently verified tokens are served from a small cache so hot tokens skip the HMAC check
+     * until they expire.
      *
-     * @return A Key object for JWT signing/verification
+     * @param token The JWT token to verify
+     * @return The verified claims of the token
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, expired, unsupported or its signature is invalid
      */
-    public Key key() {
-        // Convert the base64-encoded secret into a Key object using HMAC-SHA algorithm
-        return Keys.hmacShaKeyFor(
-                Decoders.BASE64.decode(jwtSecret)
-        );
+    public Claims verifyAndGetClaims(String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("JWT String argument cannot be null or empty.");
+        }
+        Claims cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            Date expiration = cached.getExpiration();
+            if (expiration == null || expiration.after(new Date())) {
+                return cached;
+            }
+            verifiedTokens.invalidate(token);
+        }
+        Claims claims = verifyUncached(token);
+        verifiedTokens.put(token, claims);
+        return claims;
+    }
+
+    // The signature check itself, with the parser built at startup and without the cache
+    Claims verifyUncached(String token) {
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
 
     /**
-     * Validates a JWT token.
+     * Validates a JWT token and returns its claims in one pass.
      *
      * @param authToken The JWT token to validate
-     * @return true if the token is valid, false otherwise
+     * @return The verified claims, or null if the token is invalid
      */
-    public boolean validateJwtToken(String authToken) {
+    public Claims getClaimsIfValid(String authToken) {
         try {
-            // Attempt to parse and verify the token
-            Jwts.parser()
-                    .verifyWith((SecretKey) key())  // Verify using our secret key
-                    .build()
-                    .parseSignedClaims(authToken);  // This will throw an exception if invalid
-
-            // If we get here, the token is valid
-            return true;
-
+            return verifyAndGetClaims(authToken);
         } catch (MalformedJwtException exception) {
             logger.error("Invalid JWT Token: {}", exception.getMessage());
         } catch (ExpiredJwtException exception) {
@@ -164,8 +224,27 @@ public class JwtUtils {
         } catch (IllegalArgumentException exception) {
             logger.error("JWT Claims string is empty: {}", exception.getMessage());
         }
+        return null;
+    }
 
-        // If any exception was caught, the token is invalid
-        return false;
+    /**
+     * Generates a cryptographic key from the base64-encoded secret.
+     * This key is used for both signing and verifying JWT tokens.
+     *
+     * @return A Key object for JWT signing/verification
+     */
+    public Key key() {
+        // Key is built once at startup from the base64-encoded secret (HMAC-SHA)
+        return signingKey;
+    }
+
+    /**
+     * Validates a JWT token.
+     *
+     * @param authToken The JWT token to validate
+     * @return true if the token is valid, false otherwise
+     */
+    public boolean validateJwtToken(String authToken) {
+        return getClaimsIfValid(authToken) != null;
     }
 }
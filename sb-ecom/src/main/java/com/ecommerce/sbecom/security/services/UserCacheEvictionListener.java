@@ -0,0 +1,32 @@
+package com.ecommerce.sbecom.security.services;
+
+import com.ecommerce.sbecom.models.User;
+import com.ecommerce.sbecom.utils.AfterCommit;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener on {@link User} that drops the cached principal whenever the user row changes,
+ * so a password or role update is visible on the very next request. Changes to the roles collection alone
+ * do not touch the row; {@link UserRolesEvictionListener} covers those.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheEvictionListener {
+
+    private final UserPrincipalCache userPrincipalCache;
+
+    @PostUpdate
+    @PostRemove
+    public void evict(User user) {
+        evict(user.getUsername());
+    }
+
+    // Evicted at once and again after commit, so a load racing the transaction cannot re-cache the old state
+    void evict(String username) {
+        userPrincipalCache.evict(username);
+        AfterCommit.run(() -> userPrincipalCache.evict(username));
+    }
+}
@@ -0,0 +1,51 @@
+package com.ecommerce.sbecom.security.services;
+
+import com.ecommerce.sbecom.cache.SingleFlightLoader;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-evicting cache of authenticated principals keyed by username.
+ * AuthTokenFilter reads from here so that a valid JWT does not hit the users table on every request.
+ * Entries are evicted when the user's roles or password change (see {@link UserCacheEvictionListener} and
+ * {@link UserRolesEvictionListener}).
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final Cache<String, UserDetailsImpl> cache;
+    // Loader DB hit karta hai - virtual threads pe carrier pin na ho isliye Cache.get(key, loader) nahi use karte
+    private final SingleFlightLoader<String, UserDetailsImpl> singleFlight = new SingleFlightLoader<>();
+
+    public UserPrincipalCache(@Value("${spring.app.principalCache.maxSize}") long maxSize,
+                              @Value("${spring.app.principalCache.ttlSeconds}") long ttlSeconds,
+                              MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userPrincipals");
+    }
+
+    public UserDetailsImpl get(String username, Function<String, UserDetailsImpl> loader) {
+        return singleFlight.get(cache, username, loader);
+    }
+
+    public void evict(String username) {
+        if (username != null) {
+            cache.invalidate(username);
+        }
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+}
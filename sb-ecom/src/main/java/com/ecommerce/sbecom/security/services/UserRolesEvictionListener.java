@@ -0,0 +1,45 @@
+package com.ecommerce.sbecom.security.services;
+
+import com.ecommerce.sbecom.models.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Granting or revoking a role only rewrites {@code user_roles}; the users row stays the same, so JPA's
+ * {@code @PostUpdate} never fires. Hibernate's collection events do, and drop the cached principal
+ * (with its authorities) of the affected user.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserRolesEvictionListener {
+
+    private static final String ROLES = User.class.getName() + ".roles";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserCacheEvictionListener userCacheEvictionListener;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_COLLECTION_UPDATE, (PostCollectionUpdateEventListener) this::onRolesChanged);
+        listeners.appendListeners(EventType.POST_COLLECTION_RECREATE, (PostCollectionRecreateEventListener) this::onRolesChanged);
+        listeners.appendListeners(EventType.POST_COLLECTION_REMOVE, (PostCollectionRemoveEventListener) this::onRolesChanged);
+    }
+
+    private void onRolesChanged(AbstractCollectionEvent event) {
+        if (event.getAffectedOwnerOrNull() instanceof User user && ROLES.equals(event.getCollection().getRole())) {
+            userCacheEvictionListener.evict(user.getUsername());
+        }
+    }
+}
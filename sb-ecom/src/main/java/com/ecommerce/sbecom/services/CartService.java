@@ -5,6 +5,8 @@ import com.ecommerce.sbecom.payload.CartItemDTO;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 @Service
@@ -13,8 +15,12 @@ public interface CartService {
 
     List<CartDTO> getAllCarts();
 
+    void exportAllCarts(OutputStream outputStream, boolean ndjson) throws IOException;
+
     CartDTO getCart(String emailId, Long cartId);
 
+    CartDTO getCartByEmail(String emailId);
+
     @Transactional
     CartDTO updateProductQuantityInCart(Long productId, Integer quantity);
 
@@ -22,5 +28,9 @@ public interface CartService {
 
     void updateProductsInCart(Long cartId, Long productId);
 
+    void repriceProductInCarts(Long productId, double productPrice);
+
+    void removeProductFromAllCarts(Long productId);
+
     String createOrUpdateCartWithItems(List<CartItemDTO> cartItemDTOS);
 }
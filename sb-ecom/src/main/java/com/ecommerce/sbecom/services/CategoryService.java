@@ -7,6 +7,8 @@ public interface CategoryService {
 
     CategoryResponse getAllCategories(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
 
+    CategoryResponse getAllCategoriesAfter(String cursor, Integer pageSize, String sortBy, String sortOrder, boolean includeTotal);
+
     CategoryDTO createCategory(CategoryDTO categoryDTO);
 
     CategoryDTO deleteCategory(Long categoryId);
@@ -7,5 +7,14 @@ import java.io.IOException;
 
 @Service
 public interface FileService {
+    String THUMBNAIL = "thumb";
+    String MEDIUM = "medium";
+
     String uploadImage(String path, MultipartFile file) throws IOException;
+
+    /**
+     * Returns the file name of the requested resized variant of an image, or the original name while the
+     * variant has not been generated (yet).
+     */
+    String resolveVariant(String path, String imageName, String variant);
 }
@@ -0,0 +1,13 @@
+package com.ecommerce.sbecom.services;
+
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+@Service
+public interface ProductImportService {
+
+    void importProducts(InputStream inputStream, boolean csv, OutputStream report) throws IOException;
+}
@@ -1,6 +1,7 @@
 package com.ecommerce.sbecom.services.serviceImpl;
 
 import com.ecommerce.sbecom.exceptions.ResourceNotFoundException;
+import com.ecommerce.sbecom.mappers.AddressMapper;
 import com.ecommerce.sbecom.models.Address;
 import com.ecommerce.sbecom.models.User;
 import com.ecommerce.sbecom.payload.AddressDTO;
@@ -8,7 +9,6 @@ import com.ecommerce.sbecom.repositories.AddressRepository;
 import com.ecommerce.sbecom.repositories.UserRepository;
 import com.ecommerce.sbecom.services.AddressService;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -19,13 +19,13 @@ public class AddressServiceImpl implements AddressService {
 
     private final AddressRepository addressRepository;
 
-    private final ModelMapper modelMapper;
+    private final AddressMapper addressMapper;
 
     private final UserRepository userRepository;
 
     @Override
     public AddressDTO createAddress(AddressDTO addressDTO, User user) {
-        Address address = modelMapper.map(addressDTO, Address.class);
+        Address address = addressMapper.toEntity(addressDTO);
 
         List<Address> addressList = user.getAddresses();
         addressList.add(address);
@@ -33,14 +33,14 @@ public class AddressServiceImpl implements AddressService {
 
         address.setUser(user);
         Address savedAddress = addressRepository.save(address);
-        return modelMapper.map(savedAddress, AddressDTO.class);
+        return addressMapper.toDTO(savedAddress);
     }
 
     @Override
     public List<AddressDTO> getAllAddresses() {
         List<Address> addresses = addressRepository.findAll();
         List<AddressDTO> addressDTOS = addresses.stream()
-                .map(address -> modelMapper.map(address, AddressDTO.class))
+                .map(addressMapper::toDTO)
                 .toList();
         return addressDTOS;
     }
@@ -49,7 +49,7 @@ public class AddressServiceImpl implements AddressService {
     public AddressDTO getAddressById(Long addressId) {
         Address address = addressRepository.findById(addressId)
                 .orElseThrow(() -> new ResourceNotFoundException("Address", "addressId", addressId));
-        AddressDTO addressDTO = modelMapper.map(address, AddressDTO.class);
+        AddressDTO addressDTO = addressMapper.toDTO(address);
         return addressDTO;
     }
 
@@ -57,7 +57,7 @@ public class AddressServiceImpl implements AddressService {
     public List<AddressDTO> getAddressByUser(User user) {
         List<AddressDTO> addressDTO = user.getAddresses()
                 .stream()
-                .map(address -> modelMapper.map(address, AddressDTO.class))
+                .map(addressMapper::toDTO)
                 .toList();
         return addressDTO;
     }
@@ -80,7 +80,7 @@ public class AddressServiceImpl implements AddressService {
         user.getAddresses().add(updateAddress);
         userRepository.save(user);
 
-        return modelMapper.map(updateAddress, AddressDTO.class);
+        return addressMapper.toDTO(updateAddress);
     }
 
     @Override
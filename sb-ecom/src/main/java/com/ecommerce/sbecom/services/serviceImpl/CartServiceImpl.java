@@ -2,10 +2,12 @@ package com.ecommerce.sbecom.services.serviceImpl;
 
 import com.ecommerce.sbecom.exceptions.APIExceptions;
 import com.ecommerce.sbecom.exceptions.ResourceNotFoundException;
+import com.ecommerce.sbecom.mappers.CartMapper;
 import com.ecommerce.sbecom.models.Cart;
 import com.ecommerce.sbecom.models.CartItem;
 import com.ecommerce.sbecom.models.Product;
 import com.ecommerce.sbecom.payload.CartDTO;
+import com.ecommerce.sbecom.payload.CartExportRow;
 import com.ecommerce.sbecom.payload.CartItemDTO;
 import com.ecommerce.sbecom.payload.ProductDTO;
 import com.ecommerce.sbecom.repositories.CartItemRespository;
@@ -13,12 +15,24 @@ import com.ecommerce.sbecom.repositories.CartRepository;
 import com.ecommerce.sbecom.repositories.ProductRepository;
 import com.ecommerce.sbecom.services.CartService;
 import com.ecommerce.sbecom.utils.AuthUtil;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
@@ -28,8 +42,9 @@ public class CartServiceImpl implements CartService {
     private final CartRepository cartRepository;
     private final ProductRepository productRepository;
     private final CartItemRespository cartItemRespository;
-    private final ModelMapper modelMapper;
+    private final CartMapper cartMapper;
     private final AuthUtil authUtil;
+    private final ObjectMapper objectMapper;
 
     @Override
     public CartDTO addProductToCart(Long productId, Integer quantity) {
@@ -63,18 +78,7 @@ public class CartServiceImpl implements CartService {
         cart.setTotalPrice(cart.getTotalPrice() + (product.getSpecialPrice()) * quantity);
         cartRepository.save(cart);
 
-        CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
-
-        List<CartItem> cartItems = cart.getCartItems();
-
-        List<ProductDTO> productDTOStream = cartItems.stream()
-                .map(item -> {
-                    ProductDTO map = modelMapper.map(item.getProduct(), ProductDTO.class);
-                    map.setProductQuantity(item.getQuantity());
-                    return map;
-                }).toList();
-        cartDTO.setProducts(productDTOStream);
-        return cartDTO;
+        return cartMapper.toDTO(cart);
     }
 
     @Override
@@ -84,35 +88,79 @@ public class CartServiceImpl implements CartService {
             throw new APIExceptions("No cart exits");
         }
         List<CartDTO> cartDTOS = carts.stream()
-                .map(cart -> {
-                    CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
-                    List<ProductDTO> products = cart.getCartItems().stream()
-                            .map(cartItem -> {
-                                ProductDTO productDTO = modelMapper.map(cartItem.getProduct(), ProductDTO.class);
-                                productDTO.setProductQuantity(cartItem.getQuantity());
-                                return productDTO;
-                            }).toList();
-                    cartDTO.setProducts(products);
-                    return cartDTO;
-                }).toList();
+                .map(cartMapper::toDTO)
+                .toList();
 
         return cartDTOS;
     }
 
+    /**
+     * Writes every cart as NDJSON (one cart per line) or as a JSON array, reading the lines through a database
+     * cursor and flushing after each fetch-sized chunk of carts. Only the cart being assembled is held in memory.
+     */
+    @Transactional
+    @Override
+    public void exportAllCarts(OutputStream outputStream, boolean ndjson) throws IOException {
+        int chunkSize = Integer.parseInt(CartRepository.EXPORT_FETCH_SIZE);
+        try (Stream<CartExportRow> rows = cartRepository.streamCartExportRows();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (ndjson) {
+                generator.setRootValueSeparator(new SerializedString("\n"));
+            } else {
+                generator.writeStartArray();
+            }
+            CartDTO current = null;
+            int written = 0;
+            Iterator<CartExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                CartExportRow row = iterator.next();
+                if (current == null || !current.getCartId().equals(row.cartId())) {
+                    if (current != null) {
+                        generator.writeObject(current);
+                        if (++written % chunkSize == 0) {
+                            generator.flush();
+                        }
+                    }
+                    current = new CartDTO();
+                    current.setCartId(row.cartId());
+                    current.setTotalPrice(row.totalPrice());
+                }
+                if (row.productId() != null) {
+                    current.getProducts().add(new ProductDTO(row.productId(), row.productName(),
+                            row.productDescription(), row.productImage(), row.quantity(),
+                            row.productPrice(), row.productDiscount(), row.specialPrice()));
+                }
+            }
+            if (current != null) {
+                generator.writeObject(current);
+            }
+            if (ndjson) {
+                if (current != null) {
+                    generator.writeRaw('\n');
+                }
+            } else {
+                generator.writeEndArray();
+            }
+        }
+    }
+
     @Override
     public CartDTO getCart(String emailId, Long cartId) {
         Cart cart = cartRepository.findCartByEmailAndCartId(emailId, cartId);
         if (cart == null) {
             throw new ResourceNotFoundException("Cart", "cartId", cartId);
         }
-        CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
-        cart.getCartItems()
-                .forEach(c -> c.getProduct().setProductQuantity(c.getQuantity()));
-        List<ProductDTO> productDTO = cart.getCartItems().stream()
-                .map(product -> modelMapper.map(product.getProduct(), ProductDTO.class))
-                .toList();
-        cartDTO.setProducts(productDTO);
-        return cartDTO;
+        return cartMapper.toDTO(cart);
+    }
+
+    @Override
+    public CartDTO getCartByEmail(String emailId) {
+        Cart cart = cartRepository.findCartByEmail(emailId);
+        if (cart == null) {
+            throw new ResourceNotFoundException("Cart", "email", emailId);
+        }
+        return cartMapper.toDTO(cart);
     }
 
     @Transactional
@@ -157,16 +205,7 @@ public class CartServiceImpl implements CartService {
         if (updatedCartItem.getQuantity() == 0) {
             cartItemRespository.deleteById(updatedCartItem.getCartItemId());
         }
-        CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
-        List<CartItem> cartItems = cart.getCartItems();
-        Stream<ProductDTO> productStream = cartItems.stream()
-                .map(item -> {
-                    ProductDTO prd = modelMapper.map(item.getProduct(), ProductDTO.class);
-                    prd.setProductQuantity(item.getQuantity());
-                    return prd;
-                });
-        cartDTO.setProducts(productStream.toList());
-        return cartDTO;
+        return cartMapper.toDTO(cart);
     }
 
     @Transactional
@@ -204,6 +243,22 @@ public class CartServiceImpl implements CartService {
         cartItem = cartItemRespository.save(cartItem);
     }
 
+    @Transactional
+    @Override
+    public void repriceProductInCarts(Long productId, double productPrice) {
+        int repricedItems = cartItemRespository.updateProductPrice(productId, productPrice);
+        if (repricedItems > 0) {
+            cartRepository.recomputeTotalsForProduct(productId);
+        }
+    }
+
+    @Transactional
+    @Override
+    public void removeProductFromAllCarts(Long productId) {
+        cartRepository.subtractProductFromTotals(productId);
+        cartItemRespository.deleteAllByProductId(productId);
+    }
+
     @Transactional
     @Override
     public String createOrUpdateCartWithItems(List<CartItemDTO> cartItems) {
@@ -217,12 +272,24 @@ public class CartServiceImpl implements CartService {
         } else {
             cartItemRespository.deleteAllByCartId(existingCart.getCartId());
         }
+        // One query for every product of the sync, and every unknown id reported at once
+        Set<Long> productIds = cartItems.stream()
+                .map(CartItemDTO::getProductId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, Product> products = productRepository.findAllById(productIds.stream().filter(Objects::nonNull).toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+        List<Long> missingIds = productIds.stream()
+                .filter(productId -> !products.containsKey(productId))
+                .toList();
+        if (!missingIds.isEmpty()) {
+            throw new ResourceNotFoundException("Product", "productIds", missingIds.toString());
+        }
         double totalPrice = 0.00;
+        List<CartItem> newCartItems = new ArrayList<>(cartItems.size());
         for (CartItemDTO cartItemDTO : cartItems) {
-            Long productId = cartItemDTO.getProductId();
             Integer quantity = cartItemDTO.getQuantity();
-            Product product = productRepository.findById(productId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Product Not Found!!!"));
+            Product product = products.get(cartItemDTO.getProductId());
 //            product.setProductQuantity(product.getProductQuantity() - quantity);
             totalPrice += product.getSpecialPrice() * quantity;
             CartItem cartItem = new CartItem();
@@ -231,8 +298,10 @@ public class CartServiceImpl implements CartService {
             cartItem.setQuantity(quantity);
             cartItem.setProductPrice(product.getSpecialPrice());
             cartItem.setDiscount(product.getProductDiscount());
-            cartItemRespository.save(cartItem);
+            newCartItems.add(cartItem);
         }
+        // Pooled cart_items_seq ids + JDBC batching: the lines go out as batched inserts at flush
+        cartItemRespository.saveAll(newCartItems);
         existingCart.setTotalPrice(totalPrice);
         cartRepository.save(existingCart);
         return "Cart created/updated with the new items successfully";
@@ -1,18 +1,25 @@
 package com.ecommerce.sbecom.services.serviceImpl;
 
+import com.ecommerce.sbecom.cache.CatalogVersion;
+import com.ecommerce.sbecom.cache.ProductCatalogCache;
 import com.ecommerce.sbecom.exceptions.APIExceptions;
 import com.ecommerce.sbecom.exceptions.ResourceNotFoundException;
+import com.ecommerce.sbecom.mappers.CategoryMapper;
 import com.ecommerce.sbecom.models.Category;
 import com.ecommerce.sbecom.payload.CategoryDTO;
 import com.ecommerce.sbecom.payload.CategoryResponse;
 import com.ecommerce.sbecom.repositories.CategoryRepository;
+import com.ecommerce.sbecom.search.ProductSearchIndex;
 import com.ecommerce.sbecom.services.CategoryService;
-import org.modelmapper.ModelMapper;
+import com.ecommerce.sbecom.utils.PageCursor;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -24,7 +31,19 @@ public class CategoryServiceImpl implements CategoryService {
     private CategoryRepository categoryRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private CategoryMapper categoryMapper;
+
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     @Override
     public CategoryResponse getAllCategories(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
@@ -38,7 +57,7 @@ public class CategoryServiceImpl implements CategoryService {
             throw new APIExceptions("No categories present.");
         }
         List<CategoryDTO> categoryDTOS = allCategories.stream()
-                .map((category -> modelMapper.map(category, CategoryDTO.class)))
+                .map(categoryMapper::toDTO)
                 .toList();
         CategoryResponse categoryResponse = new CategoryResponse();
         categoryResponse.setContent(categoryDTOS);
@@ -50,15 +69,48 @@ public class CategoryServiceImpl implements CategoryService {
         return categoryResponse;
     }
 
+    @Override
+    public CategoryResponse getAllCategoriesAfter(String cursor, Integer pageSize, String sortBy, String sortOrder,
+            boolean includeTotal) {
+        PageCursor pageCursor = PageCursor.decode(cursor, sortBy, sortOrder);
+        Specification<Category> specification = pageCursor == null ? Specification.allOf() : pageCursor.after("categoryId");
+        Sort sort = PageCursor.sort(sortBy, sortOrder, "categoryId");
+        List<Category> rows = categoryRepository.findBy(specification,
+                query -> query.sortBy(sort).limit(pageSize + 1).all());
+        boolean hasMore = rows.size() > pageSize;
+        List<Category> categories = hasMore ? rows.subList(0, pageSize) : rows;
+        if (categories.isEmpty()) {
+            throw new APIExceptions("No categories present.");
+        }
+        CategoryResponse categoryResponse = new CategoryResponse();
+        categoryResponse.setContent(categories.stream()
+                .map(categoryMapper::toDTO)
+                .toList());
+        categoryResponse.setPageSize(pageSize);
+        categoryResponse.setLastPage(!hasMore);
+        if (hasMore) {
+            categoryResponse.setNextCursor(PageCursor.encode(categories.get(categories.size() - 1), sortBy, sortOrder, "categoryId"));
+        }
+        if (includeTotal) {
+            long totalElements = categoryRepository.count();
+            categoryResponse.setTotalElements(totalElements);
+            categoryResponse.setTotalPages((int) ((totalElements + pageSize - 1) / pageSize));
+        }
+        return categoryResponse;
+    }
+
     @Override
     public CategoryDTO createCategory(CategoryDTO categoryDTO) {
-        Category category = modelMapper.map(categoryDTO, Category.class);
+        Category category = categoryMapper.toEntity(categoryDTO);
         Category existingCategory = categoryRepository.findByCategoryName(category.getCategoryName());
         if (existingCategory != null) {
             throw new APIExceptions("Category with the name " + category.getCategoryName() + " already exists");
         }
         Category savedCategory = categoryRepository.save(category);
-        return modelMapper.map(savedCategory, CategoryDTO.class);
+        productSearchIndex.putCategory(savedCategory.getCategoryId(), savedCategory.getCategoryName());
+        evictFromSecondLevelCache(savedCategory.getCategoryId());
+        catalogVersion.categoriesChanged();
+        return categoryMapper.toDTO(savedCategory);
     }
 
     @Override
@@ -83,8 +135,12 @@ public class CategoryServiceImpl implements CategoryService {
         Optional<Category> existingCategory = categoryRepository.findById(categoryId);
         Category categoryTobeDeleted = existingCategory.orElseThrow(() -> new ResourceNotFoundException("Category", "categoryId", categoryId));
         categoryRepository.delete(categoryTobeDeleted);
+        productSearchIndex.removeCategory(categoryId);
+        evictFromSecondLevelCache(categoryId);
+        catalogVersion.categoriesChanged();
+        productCatalogCache.evictAll();
 //        return categoryRepository.delete(categoryTobeDeleted);
-        return modelMapper.map(categoryTobeDeleted, CategoryDTO.class);
+        return categoryMapper.toDTO(categoryTobeDeleted);
     }
 
     @Override
@@ -102,12 +158,26 @@ public class CategoryServiceImpl implements CategoryService {
 //            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Resource not found");
 //        }
 
-        Category category = modelMapper.map(categoryDTO, Category.class);
+        Category category = categoryMapper.toEntity(categoryDTO);
         Optional<Category> existingCategory = categoryRepository.findById(categoryId);
         Category savedCategory = existingCategory.orElseThrow(() -> new ResourceNotFoundException("Category", "categoryIs", categoryId));
         savedCategory.setCategoryName(category.getCategoryName());
         Category updatedCategory = categoryRepository.save(savedCategory);
-        return modelMapper.map(updatedCategory, CategoryDTO.class);
+        productSearchIndex.putCategory(categoryId, updatedCategory.getCategoryName());
+        evictFromSecondLevelCache(categoryId);
+        catalogVersion.categoriesChanged();
+        productCatalogCache.evictAll();
+        return categoryMapper.toDTO(updatedCategory);
+
+    }
 
+    /**
+     * Categories and their name lookups live in Hibernate's second-level and query caches. Hibernate already
+     * invalidates them on its own writes; the explicit eviction keeps an admin change visible right away on
+     * every node that shares the regions and after writes that bypass the entity (native SQL, imports).
+     */
+    private void evictFromSecondLevelCache(Long categoryId) {
+        entityManagerFactory.getCache().evict(Category.class, categoryId);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
     }
 }
@@ -1,36 +1,188 @@
 package com.ecommerce.sbecom.services.serviceImpl;
 
 import com.ecommerce.sbecom.services.FileService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Stores uploaded images under the SHA-256 of their content, so identical uploads share one file, and
+ * generates the resized variants on a small bounded pool after the upload request has returned.
+ */
 @Service
 public class FileServiceImpl implements FileService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileServiceImpl.class);
+
+    private final Map<String, Integer> variantWidths = new LinkedHashMap<>();
+    private final ThreadPoolExecutor variantExecutor;
+
+    public FileServiceImpl(@Value("${project.images.thumbnailWidth}") int thumbnailWidth,
+                           @Value("${project.images.mediumWidth}") int mediumWidth,
+                           @Value("${project.images.variantThreads}") int variantThreads,
+                           @Value("${project.images.variantQueueCapacity}") int variantQueueCapacity,
+                           MeterRegistry meterRegistry) {
+        variantWidths.put(THUMBNAIL, thumbnailWidth);
+        variantWidths.put(MEDIUM, mediumWidth);
+        // Bounded queue + abort policy: when the pool is saturated the variants are skipped, never the upload
+        this.variantExecutor = new ThreadPoolExecutor(variantThreads, variantThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(variantQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, variantExecutor, "imageVariants");
+    }
+
     @Override
     public String uploadImage(String path, MultipartFile file) throws IOException {
         String originalFileName = file.getOriginalFilename();
-        String randomId = UUID.randomUUID().toString();
-        String fileName = randomId
-                .concat(originalFileName.substring(originalFileName.lastIndexOf(".")));
+        String extension = originalFileName != null && originalFileName.lastIndexOf(".") >= 0
+                ? originalFileName.substring(originalFileName.lastIndexOf(".")).toLowerCase(Locale.ROOT)
+                : "";
 
         // Create directory if it doesn't exist
-        File directory = new File(path);
-        if (!directory.exists()) {
-            directory.mkdirs();
+        Path directory = Paths.get(path);
+        Files.createDirectories(directory);
+
+        // Hash while streaming to a temp file in the same directory, so the final rename is atomic
+        MessageDigest digest = sha256();
+        Path tempFile = Files.createTempFile(directory, ".upload-", ".tmp");
+        try {
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String fileName = HexFormat.of().formatHex(digest.digest()) + extension;
+            Path target = directory.resolve(fileName);
+            // Same content already stored: keep the existing file and drop the temp copy
+            if (!Files.exists(target)) {
+                Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            scheduleVariants(target);
+            return fileName;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @Override
+    public String resolveVariant(String path, String imageName, String variant) {
+        if (imageName == null) {
+            return null;
+        }
+        String variantName = variantName(imageName, variant);
+        return variantName != null && Files.exists(Paths.get(path).resolve(variantName)) ? variantName : imageName;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        variantExecutor.shutdownNow();
+    }
+
+    private void scheduleVariants(Path original) {
+        String fileName = original.getFileName().toString();
+        boolean missing = variantWidths.keySet().stream()
+                .map(variant -> variantName(fileName, variant))
+                .anyMatch(name -> name != null && !Files.exists(original.resolveSibling(name)));
+        if (!missing) {
+            return;
         }
+        try {
+            variantExecutor.execute(() -> generateVariants(original));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Image variant queue is full, serving the original of {} for now", fileName);
+        }
+    }
 
-        // Create full file path
-        String filePath = path + File.separator + fileName;
+    private void generateVariants(Path original) {
+        String fileName = original.getFileName().toString();
+        try {
+            BufferedImage source = ImageIO.read(original.toFile());
+            if (source == null) {
+                // Not a format ImageIO can decode; listings keep using the original
+                return;
+            }
+            String format = fileName.substring(fileName.lastIndexOf(".") + 1);
+            for (Map.Entry<String, Integer> entry : variantWidths.entrySet()) {
+                Path variantPath = original.resolveSibling(variantName(fileName, entry.getKey()));
+                if (Files.exists(variantPath)) {
+                    continue;
+                }
+                BufferedImage resized = resize(source, entry.getValue(), !format.equals("png") && !format.equals("gif"));
+                Path tempFile = Files.createTempFile(original.getParent(), ".variant-", ".tmp");
+                try {
+                    if (!ImageIO.write(resized, format, tempFile.toFile())) {
+                        return;
+                    }
+                    Files.move(tempFile, variantPath, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(tempFile);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not generate image variants for {}: {}", fileName, e.getMessage());
+        }
+    }
 
-        // Save the file
-        Files.copy(file.getInputStream(), Paths.get(filePath), StandardCopyOption.REPLACE_EXISTING);
-        return fileName;
+    private static BufferedImage resize(BufferedImage source, int width, boolean opaque) {
+        int targetWidth = Math.min(width, source.getWidth());
+        int targetHeight = Math.max(1, Math.round((float) source.getHeight() * targetWidth / source.getWidth()));
+        BufferedImage resized = new BufferedImage(targetWidth, targetHeight,
+                opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    // 3f2a...9c.jpg -> 3f2a...9c-thumb.jpg; null for names without an extension
+    private static String variantName(String imageName, String variant) {
+        int dot = imageName.lastIndexOf(".");
+        if (dot <= 0) {
+            return null;
+        }
+        return imageName.substring(0, dot) + "-" + variant + imageName.substring(dot);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
@@ -1,21 +1,22 @@
 package com.ecommerce.sbecom.services.serviceImpl;
 
+import com.ecommerce.sbecom.cache.CatalogVersion;
+import com.ecommerce.sbecom.cache.ProductCatalogCache;
 import com.ecommerce.sbecom.exceptions.APIExceptions;
 import com.ecommerce.sbecom.exceptions.ResourceNotFoundException;
+import com.ecommerce.sbecom.mappers.OrderMapper;
 import com.ecommerce.sbecom.models.*;
 import com.ecommerce.sbecom.payload.OrderDTO;
-import com.ecommerce.sbecom.payload.OrderItemDTO;
 import com.ecommerce.sbecom.repositories.*;
-import com.ecommerce.sbecom.services.CartService;
 import com.ecommerce.sbecom.services.OrderService;
+import com.ecommerce.sbecom.utils.AfterCommit;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
@@ -24,11 +25,13 @@ public class OrderServiceImpl implements OrderService {
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final CartRepository cartRepository;
-    private final CartService cartService;
+    private final CartItemRespository cartItemRespository;
     private final AddressRepository addressRepository;
     private final PaymentRepository paymentRepository;
     private final ProductRepository productRepository;
-    private final ModelMapper modelMapper;
+    private final OrderMapper orderMapper;
+    private final ProductCatalogCache productCatalogCache;
+    private final CatalogVersion catalogVersion;
 
     @Override
     @Transactional
@@ -54,36 +57,41 @@ public class OrderServiceImpl implements OrderService {
         payment = paymentRepository.save(payment);
         order.setPayment(payment);
         Order savedOrder = orderRepository.save(order);
-        List<CartItem> cartItems = cart.getCartItems();
-        if (cartItems.isEmpty()) {
+
+        // Set-based checkout: a fixed number of statements whatever the cart size.
+        // The rollback on any failure is the same as before since everything runs in this transaction.
+        Long cartId = cart.getCartId();
+        List<String> stockCheck = productRepository.lockStockForCart(cartId);
+        List<String> outOfStock = stockCheck.stream()
+                .filter(Objects::nonNull)
+                .toList();
+        if (!outOfStock.isEmpty()) {
+            throw new APIExceptions("Not enough stock available for " + String.join(", ", outOfStock));
+        }
+        int orderedLines = orderItemRepository.insertFromCart(savedOrder.getOrderId(), cartId);
+        if (orderedLines == 0) {
             throw new APIExceptions("Cart is Empty");
         }
-        List<OrderItems> orderItems = new ArrayList<>();
-        for (CartItem cartItem : cartItems) {
-            OrderItems orderItem = new OrderItems();
-            orderItem.setProduct(cartItem.getProduct());
-            orderItem.setQuantity(cartItem.getQuantity());
-            orderItem.setDiscount(cartItem.getDiscount());
-            orderItem.setOrderedProductPrice(cartItem.getProductPrice());
-            orderItem.setOrder(savedOrder);
-            orderItems.add(orderItem);
+        // The rows are locked and checked above; the conditional decrement is the last line of defence
+        if (productRepository.decrementStockForCart(cartId) != stockCheck.size()) {
+            throw new APIExceptions("Not enough stock available for one or more products in the cart");
         }
-        orderItems = orderItemRepository.saveAll(orderItems);
-
-        cart.getCartItems().forEach(item -> {
-            int quantity = item.getQuantity();
-            Product product = item.getProduct();
-            product.setProductQuantity(product.getProductQuantity() - quantity);
-            productRepository.save(product);
+        cartItemRespository.deleteAllByCartId(cartId);
+        cartRepository.resetTotalPrice(cartId);
 
-            cartService.deleteProductFromCart(cart.getCartId(), item.getProduct().getProductId());
-        });
+        List<OrderItems> orderItems = orderItemRepository.findByOrderIdWithProducts(savedOrder.getOrderId());
+        List<Long> orderedProductIds = orderItems.stream()
+                .map(item -> item.getProduct().getProductId())
+                .toList();
+        // Stock changes become visible at commit; evicting earlier would let readers re-cache the old stock
+        AfterCommit.run(() -> productCatalogCache.evictProducts(orderedProductIds));
+        AfterCommit.run(catalogVersion::productsChanged);
 
-        OrderDTO orderDTO = modelMapper.map(savedOrder, OrderDTO.class);
+        OrderDTO orderDTO = orderMapper.toDTO(savedOrder);
         orderItems.forEach(
                 item ->
                         orderDTO.getOrderItem()
-                                .add(modelMapper.map(item, OrderItemDTO.class)));
+                                .add(orderMapper.toDTO(item)));
         orderDTO.setAddressId(addressId);
         return orderDTO;
     }
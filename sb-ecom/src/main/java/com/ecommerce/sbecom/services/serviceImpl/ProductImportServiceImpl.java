@@ -0,0 +1,314 @@
+package com.ecommerce.sbecom.services.serviceImpl;
+
+import com.ecommerce.sbecom.cache.CatalogVersion;
+import com.ecommerce.sbecom.cache.ProductCatalogCache;
+import com.ecommerce.sbecom.exceptions.APIExceptions;
+import com.ecommerce.sbecom.models.Category;
+import com.ecommerce.sbecom.models.Product;
+import com.ecommerce.sbecom.payload.ProductImportRow;
+import com.ecommerce.sbecom.repositories.CategoryRepository;
+import com.ecommerce.sbecom.repositories.ProductRepository;
+import com.ecommerce.sbecom.search.ProductSearchIndex;
+import com.ecommerce.sbecom.services.ProductImportService;
+import com.ecommerce.sbecom.utils.CsvReader;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk catalog import. The upload is parsed one record at a time and valid rows are persisted in chunks of
+ * {@code spring.app.import.batchSize}, each chunk in its own transaction as batched inserts, so neither the file
+ * nor the imported entities accumulate in memory. Progress and every rejected row are streamed back as NDJSON.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("productname", "productprice", "productquantity", "categoryname");
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductCatalogCache productCatalogCache;
+    private final CatalogVersion catalogVersion;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    @Value("${spring.app.import.batchSize}")
+    private int batchSize;
+
+    @Override
+    public void importProducts(InputStream inputStream, boolean csv, OutputStream report) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(report)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            ImportRun run = new ImportRun(generator);
+            try {
+                if (csv) {
+                    readCsv(reader, run);
+                } else {
+                    readNdjson(reader, run);
+                }
+                run.flush();
+            } catch (APIExceptions e) {
+                run.writeError(0, "Import aborted: " + e.getMessage());
+            }
+            run.summary();
+            generator.writeRaw('\n');
+        }
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        CsvReader csvReader = new CsvReader(reader);
+        List<String> header = csvReader.next();
+        if (header == null) {
+            throw new APIExceptions("The file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new APIExceptions("Missing column " + column + " in the CSV header");
+            }
+        }
+        List<String> record;
+        while ((record = csvReader.next()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            int line = csvReader.getRecordLine();
+            try {
+                ProductImportRow row = new ProductImportRow(
+                        column(record, columns, "productname"),
+                        column(record, columns, "productdescription"),
+                        parse(column(record, columns, "productquantity"), Integer::valueOf),
+                        parse(column(record, columns, "productprice"), Double::valueOf),
+                        parse(column(record, columns, "productdiscount"), Double::valueOf),
+                        column(record, columns, "categoryname"));
+                run.add(line, row);
+            } catch (NumberFormatException e) {
+                run.reject(line, "Invalid number: " + e.getMessage());
+            }
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        String text;
+        int line = 0;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            ProductImportRow row;
+            try {
+                row = objectMapper.readValue(text, ProductImportRow.class);
+            } catch (JsonProcessingException e) {
+                run.reject(line, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            run.add(line, row);
+        }
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static <T> T parse(String value, Function<String, T> parser) {
+        return value == null ? null : parser.apply(value);
+    }
+
+    private record PendingProduct(int line, Product product) {
+    }
+
+    /**
+     * State of one import: the chunk being filled, per-import category lookups and the counters.
+     */
+    private class ImportRun {
+        private final JsonGenerator generator;
+        private final Map<String, Optional<Category>> categories = new HashMap<>();
+        private final List<PendingProduct> pending = new ArrayList<>();
+        private long rows;
+        private long imported;
+        private long failed;
+
+        ImportRun(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        void add(int line, ProductImportRow row) throws IOException {
+            rows++;
+            String problem = validate(row);
+            if (problem != null) {
+                error(line, problem);
+                return;
+            }
+            // Categories come from the second-level/query cache; this map saves even that lookup within an import
+            Optional<Category> category = categories.computeIfAbsent(row.getCategoryName(),
+                    name -> Optional.ofNullable(categoryRepository.findByCategoryName(name)));
+            if (category.isEmpty()) {
+                error(line, "Category " + row.getCategoryName() + " not found");
+                return;
+            }
+            Product product = new Product();
+            product.setProductName(row.getProductName().trim());
+            product.setProductDescription(row.getProductDescription());
+            product.setProductQuantity(row.getProductQuantity());
+            product.setProductPrice(row.getProductPrice());
+            product.setProductDiscount(row.getProductDiscount() == null ? 0 : row.getProductDiscount());
+            product.setSpecialPrice(product.getProductPrice() * (1 - product.getProductDiscount() * 0.01));
+            product.setProductImage("default.png");
+            product.setCategory(category.get());
+            pending.add(new PendingProduct(line, product));
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<PendingProduct> accepted = withoutDuplicates();
+            if (!accepted.isEmpty()) {
+                List<Product> products = accepted.stream().map(PendingProduct::product).toList();
+                try {
+                    transactionTemplate.executeWithoutResult(status -> productRepository.saveAll(products));
+                    products.forEach(productSearchIndex::index);
+                    imported += products.size();
+                } catch (DataAccessException e) {
+                    // Some row broke a constraint and took the whole batch down with it: retry one by one so only
+                    // the offending rows are reported
+                    saveOneByOne(accepted);
+                }
+                productCatalogCache.evictAll();
+                catalogVersion.productsChanged();
+            }
+            pending.clear();
+            progress();
+        }
+
+        private void saveOneByOne(List<PendingProduct> chunk) throws IOException {
+            for (PendingProduct candidate : chunk) {
+                Product product = candidate.product();
+                // The rolled-back batch may already have assigned an id
+                product.setProductId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> productRepository.save(product));
+                    productSearchIndex.index(product);
+                    imported++;
+                } catch (DataAccessException e) {
+                    error(candidate.line(), "Row was not saved: " + e.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+
+        // Drops rows whose name already exists in their category, in the database or earlier in this chunk
+        private List<PendingProduct> withoutDuplicates() throws IOException {
+            Map<Long, Set<String>> existing = new HashMap<>();
+            Map<Long, List<String>> namesByCategory = pending.stream().collect(Collectors.groupingBy(
+                    p -> p.product().getCategory().getCategoryId(),
+                    Collectors.mapping(p -> p.product().getProductName(), Collectors.toList())));
+            namesByCategory.forEach((categoryId, names) ->
+                    existing.put(categoryId, new HashSet<>(productRepository.findExistingProductNames(categoryId, names))));
+            List<PendingProduct> accepted = new ArrayList<>(pending.size());
+            for (PendingProduct candidate : pending) {
+                Product product = candidate.product();
+                if (existing.get(product.getCategory().getCategoryId()).add(product.getProductName())) {
+                    accepted.add(candidate);
+                } else {
+                    error(candidate.line(), "Product " + product.getProductName() + " already exists in category "
+                            + product.getCategory().getCategoryName());
+                }
+            }
+            return accepted;
+        }
+
+        // A record that could not even be parsed into a row
+        void reject(int line, String message) throws IOException {
+            rows++;
+            error(line, message);
+        }
+
+        void error(int line, String message) throws IOException {
+            failed++;
+            writeError(line, message);
+        }
+
+        void writeError(int line, String message) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("type", "error");
+            generator.writeNumberField("line", line);
+            generator.writeStringField("message", message);
+            generator.writeEndObject();
+        }
+
+        void progress() throws IOException {
+            writeCounters("progress");
+            generator.flush();
+        }
+
+        void summary() throws IOException {
+            writeCounters("summary");
+        }
+
+        private void writeCounters(String type) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("type", type);
+            generator.writeNumberField("rows", rows);
+            generator.writeNumberField("imported", imported);
+            generator.writeNumberField("failed", failed);
+            generator.writeEndObject();
+        }
+
+        private String validate(ProductImportRow row) {
+            if (row.getProductName() == null || row.getProductName().isBlank()) {
+                return "productName is required";
+            }
+            if (row.getCategoryName() == null || row.getCategoryName().isBlank()) {
+                return "categoryName is required";
+            }
+            if (row.getProductPrice() == null || row.getProductPrice() < 0) {
+                return "productPrice must be zero or more";
+            }
+            if (row.getProductQuantity() == null || row.getProductQuantity() < 0) {
+                return "productQuantity must be zero or more";
+            }
+            if (row.getProductDiscount() != null && (row.getProductDiscount() < 0 || row.getProductDiscount() > 100)) {
+                return "productDiscount must be between 0 and 100";
+            }
+            return null;
+        }
+    }
+}
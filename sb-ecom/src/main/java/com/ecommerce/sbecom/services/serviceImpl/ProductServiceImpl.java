@@ -1,23 +1,32 @@
 package com.ecommerce.sbecom.services.serviceImpl;
 
+import com.ecommerce.sbecom.cache.CatalogVersion;
+import com.ecommerce.sbecom.cache.ProductCatalogCache;
+import com.ecommerce.sbecom.cache.ProductCatalogCache.CatalogKey;
+import com.ecommerce.sbecom.config.AppConstants;
 import com.ecommerce.sbecom.exceptions.APIExceptions;
 import com.ecommerce.sbecom.exceptions.ResourceNotFoundException;
-import com.ecommerce.sbecom.models.Cart;
+import com.ecommerce.sbecom.mappers.ProductMapper;
 import com.ecommerce.sbecom.models.Category;
 import com.ecommerce.sbecom.models.Product;
-import com.ecommerce.sbecom.payload.CartDTO;
 import com.ecommerce.sbecom.payload.ProductDTO;
 import com.ecommerce.sbecom.payload.ProductResponse;
-import com.ecommerce.sbecom.repositories.CartRepository;
 import com.ecommerce.sbecom.repositories.CategoryRepository;
 import com.ecommerce.sbecom.repositories.ProductRepository;
+import com.ecommerce.sbecom.search.ProductSearchIndex;
+import com.ecommerce.sbecom.search.ProductSearchIndex.SearchResult;
 import com.ecommerce.sbecom.services.CartService;
 import com.ecommerce.sbecom.services.FileService;
 import com.ecommerce.sbecom.services.ProductService;
+import com.ecommerce.sbecom.utils.AfterCommit;
+import com.ecommerce.sbecom.utils.PageCursor;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -27,17 +36,25 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+    private static final String UNIQUE_CATEGORY_NAME = "uk_products_category_name";
+
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
     private final FileService fileService;
-    private final ModelMapper modelMapper;
-    private final CartRepository cartRepository;
+    private final ProductMapper productMapper;
     private final CartService cartService;
+    private final ProductCatalogCache productCatalogCache;
+    private final CatalogVersion catalogVersion;
+    private final ProductSearchIndex productSearchIndex;
     @Value("${project.images}")
     private String path;
     @Value("${image.base.url}")
@@ -47,22 +64,31 @@ public class ProductServiceImpl implements ProductService {
     public ProductDTO addProduct(Long categoryId, ProductDTO productDTO) {
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "Category_id", categoryId));
-        boolean isProductNotPresent = true;
-        List<Product> products = category.getProducts();
-        for (Product value : products) {
-            if (value.getProductName().equals(productDTO.getProductName())) {
-                isProductNotPresent = false;
-                break;
-            }
-        }
+        // Index lookup on (category_id, product_name) instead of loading every product of the category
+        boolean isProductNotPresent = !productRepository.existsByCategoryCategoryIdAndProductName(
+                categoryId, productDTO.getProductName());
         if (isProductNotPresent) {
-            Product product = modelMapper.map(productDTO, Product.class);
+            Product product = productMapper.toEntity(productDTO);
             product.setProductImage("default.png");
             product.setCategory(category);
             double specialPrice = product.getProductPrice() * (1 - product.getProductDiscount() * 0.01);
             product.setSpecialPrice(specialPrice);
-            Product savedProduct = productRepository.save(product);
-            return modelMapper.map(savedProduct, ProductDTO.class);
+            Product savedProduct;
+            try {
+                savedProduct = productRepository.saveAndFlush(product);
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent add of the same name won the race; the unique constraint rejected this one.
+                // Any other integrity failure is a real error and must not be reported as a duplicate
+                if (!violates(e, UNIQUE_CATEGORY_NAME)) {
+                    throw e;
+                }
+                throw new APIExceptions("Product already exits!!!");
+            }
+            productSearchIndex.index(savedProduct);
+            AfterCommit.run(() -> productCatalogCache.evictAffected(savedProduct.getProductId(),
+                    List.of(category.getCategoryName())));
+            AfterCommit.run(catalogVersion::productsChanged);
+            return productMapper.toDTO(savedProduct);
         } else {
             throw new APIExceptions("Product already exits!!!");
         }
@@ -71,34 +97,40 @@ public class ProductServiceImpl implements ProductService {
     @Override
     public ProductResponse getAllProducts(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder,
             String keyword, String category) {
-        Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
-                ? Sort.by(sortBy).ascending()
-                : Sort.by(sortBy).descending();
-        Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
+        CatalogKey key = CatalogKey.of(keyword, category, pageNumber, pageSize, sortBy, sortOrder);
+        return productCatalogCache.get(key,
+                k -> loadAllProducts(pageNumber, pageSize, sortBy, sortOrder, keyword, category));
+    }
 
-        Specification<Product> specification = Specification.allOf();
-        if (keyword != null && !keyword.isEmpty()) {
-            specification = specification
-                    .and(((root, query, criteriaBuilder) -> criteriaBuilder
-                            .like(criteriaBuilder.lower(root.get("productName")), "%" + keyword.toLowerCase() + "%")));
-        }
-        if (category != null && !category.isEmpty()) {
-            specification = specification.and(((root, query, criteriaBuilder) -> criteriaBuilder
-                    .like(root.get("category").get("categoryName"), category)));
-        }
+    private ProductResponse loadAllProducts(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder,
+            String keyword, String category) {
+        Page<ProductDTO> productPage;
+        boolean truncated = false;
+        if (keyword != null && !keyword.isEmpty() && productSearchIndex.isReady()) {
+            IndexPage indexPage = searchIndex(keyword, category, pageNumber, pageSize, sortBy, sortOrder);
+            productPage = indexPage.page();
+            truncated = indexPage.truncated();
+        } else {
+            Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
+                    ? Sort.by(sortBy).ascending()
+                    : Sort.by(sortBy).descending();
+            Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
 
-        Page<Product> productPage = productRepository.findAll(specification, pageDetails);
-        List<Product> products = productPage.getContent();
-        if (products.isEmpty()) {
+            Specification<Product> specification = Specification.allOf();
+            if (keyword != null && !keyword.isEmpty()) {
+                specification = specification.and(keywordLike(keyword));
+            }
+            if (category != null && !category.isEmpty()) {
+                specification = specification.and(categoryLike(category));
+            }
+
+            productPage = productRepository.findDTOs(specification, pageDetails);
+        }
+        List<ProductDTO> productDTOS = productPage.getContent();
+        if (productDTOS.isEmpty()) {
             throw new APIExceptions("No products exists!!!");
         }
-        List<ProductDTO> productDTOS = products.stream()
-                .map(product -> {
-                    ProductDTO productDTO = modelMapper.map(product, ProductDTO.class);
-                    productDTO.setProductImage(constructImageUrl(product.getProductImage()));
-                    return productDTO;
-                })
-                .toList();
+        productDTOS.forEach(productDTO -> productDTO.setProductImage(constructImageUrl(productDTO.getProductImage())));
         ProductResponse productResponse = new ProductResponse();
         productResponse.setContent(productDTOS);
         productResponse.setPageNumber(productPage.getNumber());
@@ -106,33 +138,137 @@ public class ProductServiceImpl implements ProductService {
         productResponse.setTotalElements(productPage.getTotalElements());
         productResponse.setTotalPages(productPage.getTotalPages());
         productResponse.setLastPage(productPage.isLast());
+        if (truncated) {
+            productResponse.setTruncated(true);
+        }
+        return productResponse;
+    }
+
+    @Override
+    public ProductResponse getAllProductsAfter(String cursor, Integer pageSize, String sortBy, String sortOrder,
+            String keyword, String category, boolean includeTotal) {
+        PageCursor pageCursor = PageCursor.decode(cursor, sortBy, sortOrder);
+        Specification<Product> filters = Specification.allOf();
+        SearchResult matches = null;
+        if (keyword != null && !keyword.isEmpty()) {
+            if (productSearchIndex.isReady()) {
+                matches = productSearchIndex.search(keyword, category);
+                filters = filters.and(idIn(matches.ids()));
+            } else {
+                filters = filters.and(keywordLike(keyword));
+            }
+        }
+        if (category != null && !category.isEmpty()) {
+            filters = filters.and(categoryLike(category));
+        }
+        Specification<Product> specification = pageCursor == null ? filters : filters.and(pageCursor.after("productId"));
+        Sort sort = PageCursor.sort(sortBy, sortOrder, "productId");
+        // One extra row tells us whether another page exists, without a COUNT(*)
+        List<ProductDTO> rows = productRepository.findDTOs(specification, sort, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<ProductDTO> productDTOS = hasMore ? rows.subList(0, pageSize) : rows;
+        if (productDTOS.isEmpty()) {
+            throw new APIExceptions("No products exists!!!");
+        }
+        ProductResponse productResponse = new ProductResponse();
+        productResponse.setContent(productDTOS);
+        productResponse.setPageSize(pageSize);
+        productResponse.setLastPage(!hasMore);
+        if (hasMore) {
+            productResponse.setNextCursor(PageCursor.encode(productDTOS.get(productDTOS.size() - 1), sortBy, sortOrder, "productId"));
+        }
+        // After the cursor is taken from the raw row values
+        productDTOS.forEach(productDTO -> productDTO.setProductImage(constructImageUrl(productDTO.getProductImage())));
+        if (matches != null && matches.truncated()) {
+            productResponse.setTruncated(true);
+        }
+        if (includeTotal) {
+            long totalElements = productRepository.count(filters);
+            productResponse.setTotalElements(totalElements);
+            productResponse.setTotalPages((int) ((totalElements + pageSize - 1) / pageSize));
+        }
         return productResponse;
     }
 
+    private Specification<Product> keywordLike(String keyword) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder
+                .like(criteriaBuilder.lower(root.get("productName")), "%" + keyword.toLowerCase() + "%");
+    }
+
+    private Specification<Product> idIn(List<Long> productIds) {
+        return (root, query, criteriaBuilder) -> productIds.isEmpty()
+                ? criteriaBuilder.disjunction()
+                : root.get("productId").in(productIds);
+    }
+
+    private Specification<Product> categoryLike(String category) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder
+                .like(root.get("category").get("categoryName"), category);
+    }
+
+    /**
+     * Pages through the search index matches. With the default sort the matches keep their relevance order and
+     * any page can be served exactly. An explicit sortBy is applied by the database over at most
+     * {@code spring.app.search.maxResults} ids; when more products matched, the page is flagged as truncated.
+     */
+    private IndexPage searchIndex(String keyword, String category, Integer pageNumber, Integer pageSize,
+            String sortBy, String sortOrder) {
+        Pageable pageDetails = PageRequest.of(pageNumber, pageSize);
+        if (!AppConstants.SORT_PRODUCTS_BY.equals(sortBy)) {
+            SearchResult matches = productSearchIndex.search(keyword, category);
+            if (matches.isEmpty()) {
+                return new IndexPage(Page.empty(pageDetails), false);
+            }
+            Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
+                    ? Sort.by(sortBy).ascending()
+                    : Sort.by(sortBy).descending();
+            return new IndexPage(productRepository.findDTOsByIds(matches.ids(),
+                    PageRequest.of(pageNumber, pageSize, sortByAndOrder)), matches.truncated());
+        }
+        SearchResult matches = productSearchIndex.search(keyword, category,
+                (int) Math.min(Integer.MAX_VALUE, pageDetails.getOffset() + pageSize));
+        if (matches.isEmpty()) {
+            return new IndexPage(Page.empty(pageDetails), false);
+        }
+        List<Long> matchingIds = matches.ids();
+        int from = (int) Math.min(pageDetails.getOffset(), matchingIds.size());
+        int to = Math.min(from + pageSize, matchingIds.size());
+        List<Long> pageIds = matchingIds.subList(from, to);
+        Map<Long, ProductDTO> productsById = productRepository.findDTOsByIds(pageIds).stream()
+                .collect(Collectors.toMap(ProductDTO::getProductId, Function.identity()));
+        List<ProductDTO> products = pageIds.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new IndexPage(new PageImpl<>(products, pageDetails, matches.totalMatches()), false);
+    }
+
+    private record IndexPage(Page<ProductDTO> page, boolean truncated) {
+    }
+
+    // Listing pages get the medium variant once it has been generated
     private String constructImageUrl(String imageName) {
+        String fileName = fileService.resolveVariant(path, imageName, FileService.MEDIUM);
         return imageBaseUrl.endsWith("/")
-                ? imageBaseUrl + imageName
-                : imageBaseUrl + "/" + imageName;
+                ? imageBaseUrl + fileName
+                : imageBaseUrl + "/" + fileName;
     }
 
     @Override
     public ProductResponse searchByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy,
             String sortOrder) {
-        Category category = categoryRepository.findById(categoryId)
-                .orElseThrow(() -> new ResourceNotFoundException("Category", "Category", categoryId));
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new ResourceNotFoundException("Category", "Category", categoryId);
+        }
         Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
                 ? Sort.by(sortBy).ascending()
                 : Sort.by(sortBy).descending();
         Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
-        Page<Product> productPage = productRepository
-                .findByCategoryOrderByProductPriceAsc(category, pageDetails);
-        List<Product> products = productPage.getContent();
-        if (products.isEmpty()) {
+        Page<ProductDTO> productPage = productRepository.findDTOsByCategoryId(categoryId, pageDetails);
+        List<ProductDTO> productDTOS = productPage.getContent();
+        if (productDTOS.isEmpty()) {
             throw new APIExceptions("No products exists!!!");
         }
-        List<ProductDTO> productDTOS = products.stream()
-                .map(product -> modelMapper.map(product, ProductDTO.class))
-                .toList();
         ProductResponse productResponse = new ProductResponse();
         productResponse.setContent(productDTOS);
         productResponse.setPageNumber(productPage.getNumber());
@@ -146,19 +282,23 @@ public class ProductServiceImpl implements ProductService {
     @Override
     public ProductResponse searchProductByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy,
             String sortOrder) {
-        Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
-                ? Sort.by(sortBy).ascending()
-                : Sort.by(sortBy).descending();
-        Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
-        Page<Product> productPage = productRepository
-                .findByProductNameLikeIgnoreCase("%" + keyword + "%", pageDetails);
-        List<Product> products = productPage.getContent();
-        if (products.isEmpty()) {
+        Page<ProductDTO> productPage;
+        boolean truncated = false;
+        if (productSearchIndex.isReady()) {
+            IndexPage indexPage = searchIndex(keyword, null, pageNumber, pageSize, sortBy, sortOrder);
+            productPage = indexPage.page();
+            truncated = indexPage.truncated();
+        } else {
+            Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
+                    ? Sort.by(sortBy).ascending()
+                    : Sort.by(sortBy).descending();
+            Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
+            productPage = productRepository.findDTOsByProductNameLike("%" + keyword + "%", pageDetails);
+        }
+        List<ProductDTO> productDTOS = productPage.getContent();
+        if (productDTOS.isEmpty()) {
             throw new APIExceptions("No products exists!!!");
         }
-        List<ProductDTO> productDTOS = products.stream()
-                .map(product -> modelMapper.map(product, ProductDTO.class))
-                .toList();
         ProductResponse productResponse = new ProductResponse();
         productResponse.setContent(productDTOS);
         productResponse.setPageNumber(productPage.getNumber());
@@ -166,14 +306,18 @@ public class ProductServiceImpl implements ProductService {
         productResponse.setTotalElements(productPage.getTotalElements());
         productResponse.setTotalPages(productPage.getTotalPages());
         productResponse.setLastPage(productPage.isLast());
+        if (truncated) {
+            productResponse.setTruncated(true);
+        }
         return productResponse;
     }
 
     @Override
+    @Transactional
     public ProductDTO updateProduct(Long productId, ProductDTO productDTO) {
         Product productFromDB = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "ProductId", productId));
-        Product product = modelMapper.map(productDTO, Product.class);
+        Product product = productMapper.toEntity(productDTO);
         productFromDB.setProductName(product.getProductName());
         productFromDB.setProductDescription(product.getProductDescription());
         productFromDB.setProductQuantity(product.getProductQuantity());
@@ -182,27 +326,27 @@ public class ProductServiceImpl implements ProductService {
         double specialPrice = product.getProductPrice() * (1 - product.getProductDiscount() * 0.01);
         productFromDB.setSpecialPrice(specialPrice);
         Product savedProduct = productRepository.save(productFromDB);
-        List<Cart> carts = cartRepository.findCartsByProductId(productId);
-        List<CartDTO> cartDTOS = carts.stream().map(cart -> {
-            CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
-            List<ProductDTO> productDTOS = cart.getCartItems()
-                    .stream()
-                    .map(prod -> modelMapper.map(prod, ProductDTO.class)).toList();
-            cartDTO.setProducts(productDTOS);
-            return cartDTO;
-        }).toList();
-        cartDTOS.forEach(cart -> cartService.updateProductsInCart(cart.getCartId(), productId));
-        return modelMapper.map(savedProduct, ProductDTO.class);
+        // The index is only told once the new values are committed, so a rollback leaves it untouched
+        AfterCommit.run(() -> productSearchIndex.index(savedProduct));
+        cartService.repriceProductInCarts(productId, savedProduct.getSpecialPrice());
+        List<String> affectedCategories = categoryNames(savedProduct);
+        AfterCommit.run(() -> productCatalogCache.evictAffected(productId, affectedCategories));
+        AfterCommit.run(catalogVersion::productsChanged);
+        return productMapper.toDTO(savedProduct);
     }
 
     @Override
+    @Transactional
     public ProductDTO deleteProduct(Long productId) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
-        List<Cart> carts = cartRepository.findCartsByProductId(productId);
-        carts.forEach(cart -> cartService.deleteProductFromCart(cart.getCartId(), productId));
+        cartService.removeProductFromAllCarts(productId);
         productRepository.delete(product);
-        return modelMapper.map(product, ProductDTO.class);
+        AfterCommit.run(() -> productSearchIndex.remove(productId));
+        List<String> affectedCategories = categoryNames(product);
+        AfterCommit.run(() -> productCatalogCache.evictAffected(productId, affectedCategories));
+        AfterCommit.run(catalogVersion::productsChanged);
+        return productMapper.toDTO(product);
     }
 
     @Override
@@ -217,8 +361,21 @@ public class ProductServiceImpl implements ProductService {
         productFromDB.setProductImage(fileName);
         // save updated product
         Product updatedProduct = productRepository.save(productFromDB);
+        AfterCommit.run(() -> productCatalogCache.evictProducts(List.of(productId)));
+        AfterCommit.run(catalogVersion::productsChanged);
         // return DTO after mapping product to DTO
-        return modelMapper.map(productFromDB, ProductDTO.class);
+        return productMapper.toDTO(productFromDB);
+    }
+
+    private List<String> categoryNames(Product product) {
+        return product.getCategory() == null
+                ? List.of()
+                : List.of(product.getCategory().getCategoryName());
+    }
+
+    private static boolean violates(DataIntegrityViolationException e, String constraintName) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && constraintName.equalsIgnoreCase(violation.getConstraintName());
     }
 
 }
@@ -3,6 +3,7 @@ package com.ecommerce.sbecom.utils;
 
 import com.ecommerce.sbecom.models.User;
 import com.ecommerce.sbecom.repositories.UserRepository;
+import com.ecommerce.sbecom.security.services.UserDetailsImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -14,26 +15,44 @@ import org.springframework.stereotype.Component;
 public class AuthUtil {
 
     private final UserRepository userRepository;
+    private final RequestUserContext requestUserContext;
 
     public String loggedInEmail() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User user = userRepository.findByUsername(authentication.getName())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username " + authentication.getName()));
-        return user.getEmail();
+        return loggedInPrincipal().getEmail();
     }
 
     public User loggedInUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User user = userRepository.findByUsername(authentication.getName())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        User user = requestUserContext.getUser();
+        if (user == null) {
+            UserDetailsImpl principal = loggedInPrincipal();
+            user = userRepository.findById(principal.getId())
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+            requestUserContext.setUser(user);
+        }
         return user;
     }
 
     public Long loggedInUserId() {
+        return loggedInPrincipal().getId();
+    }
+
+    private UserDetailsImpl loggedInPrincipal() {
+        UserDetailsImpl principal = requestUserContext.getPrincipal();
+        if (principal != null) {
+            return principal;
+        }
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User user = userRepository.findByUsername(authentication.getName())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        return user.getUserId();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+            requestUserContext.setPrincipal(userDetails);
+            return userDetails;
+        }
+        String username = authentication != null ? authentication.getName() : null;
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username " + username));
+        requestUserContext.setUser(user);
+        UserDetailsImpl userDetails = UserDetailsImpl.build(user);
+        requestUserContext.setPrincipal(userDetails);
+        return userDetails;
     }
 
 }
@@ -0,0 +1,115 @@
+package com.ecommerce.sbecom.utils;
+
+import com.ecommerce.sbecom.exceptions.APIExceptions;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset (seek) pagination cursor: the sort column value and id of the last row of a page.
+ * The next page is read with {@code WHERE (sortBy, id) > (lastValue, lastId)} instead of an OFFSET, so every
+ * page costs the same no matter how deep it is. Nulls sort last in ascending and first in descending order,
+ * as in Postgres, so the (sortBy, id) indexes stay usable.
+ */
+public record PageCursor(String sortBy, String sortOrder, String lastValue, String lastId) {
+
+    private static final ConversionService CONVERSION = DefaultConversionService.getSharedInstance();
+    private static final String NULL_VALUE = "n";
+    private static final String VALUE_PREFIX = "v";
+
+    /**
+     * Decodes a cursor handed out by {@link #encode}; an empty token means the first page and yields null.
+     */
+    public static PageCursor decode(String token, String sortBy, String sortOrder) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\n", 4);
+        } catch (IllegalArgumentException e) {
+            throw new APIExceptions("Invalid page cursor");
+        }
+        if (parts.length != 4 || parts[3].isEmpty()) {
+            throw new APIExceptions("Invalid page cursor");
+        }
+        if (!parts[0].equals(sortBy) || !parts[1].equalsIgnoreCase(sortOrder)) {
+            throw new APIExceptions("Page cursor was issued for a different sortBy/sortOrder");
+        }
+        String lastValue = parts[3].startsWith(VALUE_PREFIX) ? parts[3].substring(1) : null;
+        return new PageCursor(parts[0], parts[1], lastValue, parts[2]);
+    }
+
+    /**
+     * Builds the cursor pointing just past the given row.
+     */
+    public static String encode(Object lastRow, String sortBy, String sortOrder, String idAttribute) {
+        BeanWrapper row = PropertyAccessorFactory.forBeanPropertyAccess(lastRow);
+        Object value = row.getPropertyValue(sortBy);
+        Object id = row.getPropertyValue(idAttribute);
+        String raw = sortBy + "\n" + sortOrder + "\n" + id + "\n"
+                + (value == null ? NULL_VALUE : VALUE_PREFIX + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Sort sort(String sortBy, String sortOrder, String idAttribute) {
+        boolean ascending = sortOrder.equalsIgnoreCase("asc");
+        // Postgres already puts nulls last in ASC and first in DESC; an explicit NULLS clause is not supported by
+        // the Criteria queries this sort is applied to
+        Sort.Order order = ascending ? Sort.Order.asc(sortBy) : Sort.Order.desc(sortBy);
+        if (sortBy.equals(idAttribute)) {
+            return Sort.by(order);
+        }
+        return Sort.by(order, ascending ? Sort.Order.asc(idAttribute) : Sort.Order.desc(idAttribute));
+    }
+
+    /**
+     * Restricts a query to the rows after this cursor in {@link #sort} order.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public <T> Specification<T> after(String idAttribute) {
+        return (root, query, criteriaBuilder) -> {
+            boolean ascending = sortOrder.equalsIgnoreCase("asc");
+            Path<Comparable> idPath = root.get(idAttribute);
+            Comparable id = convert(lastId, idPath.getJavaType());
+            Predicate idAfter = ascending
+                    ? criteriaBuilder.greaterThan(idPath, id)
+                    : criteriaBuilder.lessThan(idPath, id);
+            if (sortBy.equals(idAttribute)) {
+                return idAfter;
+            }
+            Path<Comparable> sortPath = root.get(sortBy);
+            if (lastValue == null) {
+                Predicate sameValue = criteriaBuilder.and(criteriaBuilder.isNull(sortPath), idAfter);
+                // descending puts nulls first, so every non-null row is still ahead of the cursor
+                return ascending ? sameValue : criteriaBuilder.or(sameValue, criteriaBuilder.isNotNull(sortPath));
+            }
+            Comparable value = convert(lastValue, sortPath.getJavaType());
+            Predicate valueAfter = ascending
+                    ? criteriaBuilder.greaterThan(sortPath, value)
+                    : criteriaBuilder.lessThan(sortPath, value);
+            Predicate sameValue = criteriaBuilder.and(criteriaBuilder.equal(sortPath, value), idAfter);
+            return ascending
+                    ? criteriaBuilder.or(valueAfter, sameValue, criteriaBuilder.isNull(sortPath))
+                    : criteriaBuilder.or(valueAfter, sameValue);
+        };
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static Comparable convert(String value, Class<?> type) {
+        try {
+            return (Comparable) CONVERSION.convert(value, type);
+        } catch (ConversionException | ClassCastException e) {
+            throw new APIExceptions("Invalid page cursor");
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.sbecom.utils;
+
+import com.ecommerce.sbecom.models.User;
+import com.ecommerce.sbecom.security.services.UserDetailsImpl;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * Holds the user resolved for the current request.
+ * AuthTokenFilter fills in the principal from the JWT; the User entity is loaded at most once, on first use.
+ */
+@Component
+@RequestScope
+@Getter
+@Setter
+public class RequestUserContext {
+    private UserDetailsImpl principal;
+    private User user;
+}
@@ -0,0 +1,54 @@
+package com.ecommerce.sbecom.utils;
+
+import com.ecommerce.sbecom.exceptions.APIExceptions;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Caps how many bytes may be read from a streamed request body. Used where the body is consumed directly
+ * instead of going through the multipart limits; reading past the cap fails with {@link APIExceptions}.
+ */
+public class SizeLimitedInputStream extends FilterInputStream {
+
+    private final long maxBytes;
+    private long read;
+
+    public SizeLimitedInputStream(InputStream in, long maxBytes) {
+        super(in);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            count(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    private void count(long bytes) {
+        read += bytes;
+        if (read > maxBytes) {
+            throw new APIExceptions("The upload is larger than the limit of " + maxBytes + " bytes");
+        }
+    }
+}
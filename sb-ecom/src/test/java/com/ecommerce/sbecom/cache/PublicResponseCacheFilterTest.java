@@ -0,0 +1,63 @@
+package com.ecommerce.sbecom.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PublicResponseCacheFilterTest {
+
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PublicResponseCacheFilter filter = new PublicResponseCacheFilter(catalogVersion, 1 << 20, 60, meterRegistry);
+
+    @Test
+    void hitReplaysTheStoredHeaders() throws Exception {
+        MockHttpServletResponse first = get(json("{\"page\":1}", () -> { }));
+        MockHttpServletResponse second = get((request, response) -> {
+            throw new AssertionError("a cache hit must not reach the controller");
+        });
+
+        assertThat(second.getContentAsString()).isEqualTo(first.getContentAsString()).isEqualTo("{\"page\":1}");
+        assertThat(second.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("max-age=60");
+        assertThat(second.getHeader("X-Catalog-Page")).isEqualTo("1");
+        assertThat(cachedEntries()).isEqualTo(1);
+    }
+
+    @Test
+    void responseBuiltWhileTheVersionMovedIsNotStored() throws Exception {
+        MockHttpServletResponse response = get(json("{\"page\":1}", catalogVersion::productsChanged));
+
+        assertThat(response.getContentAsString()).isEqualTo("{\"page\":1}");
+        assertThat(cachedEntries()).isZero();
+    }
+
+    private MockHttpServletResponse get(FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/public/products");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    // Stands in for the controller: sets its own headers and body, running duringRequest before it writes
+    private static FilterChain json(String body, Runnable duringRequest) {
+        return (request, response) -> {
+            duringRequest.run();
+            response.setContentType("application/json");
+            ((HttpServletResponse) response).setHeader(HttpHeaders.CACHE_CONTROL, "max-age=60");
+            ((HttpServletResponse) response).setHeader("X-Catalog-Page", "1");
+            response.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private double cachedEntries() {
+        return meterRegistry.get("cache.size").tag("cache", "publicResponses").gauge().value();
+    }
+}
@@ -0,0 +1,84 @@
+package com.ecommerce.sbecom.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightLoaderTest {
+
+    private final Cache<String, String> cache = Caffeine.newBuilder().build();
+    private final SingleFlightLoader<String, String> loader = new SingleFlightLoader<>();
+
+    @Test
+    void loadStartedBeforeAnEvictionIsNotCached() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+        CompletableFuture<String> staleLoad = CompletableFuture.supplyAsync(() -> loader.get(cache, "page", key -> {
+            loading.countDown();
+            await(evicted);
+            return "before";
+        }));
+
+        await(loading);
+        loader.invalidate();
+        cache.invalidateAll();
+        evicted.countDown();
+
+        // The caller still gets what it loaded, but the next reader loads again
+        assertThat(staleLoad.get(5, TimeUnit.SECONDS)).isEqualTo("before");
+        assertThat(cache.getIfPresent("page")).isNull();
+        assertThat(loader.get(cache, "page", key -> "after")).isEqualTo("after");
+        assertThat(cache.getIfPresent("page")).isEqualTo("after");
+    }
+
+    @Test
+    void readerAfterAnEvictionDoesNotJoinTheStaleLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> staleLoad = CompletableFuture.supplyAsync(() -> loader.get(cache, "page", key -> {
+            loading.countDown();
+            await(release);
+            return "before";
+        }));
+
+        await(loading);
+        loader.invalidate();
+
+        assertThat(loader.get(cache, "page", key -> "after")).isEqualTo("after");
+        release.countDown();
+        assertThat(staleLoad.get(5, TimeUnit.SECONDS)).isEqualTo("before");
+        assertThat(cache.getIfPresent("page")).isEqualTo("after");
+    }
+
+    @Test
+    void concurrentReadersShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> loader.get(cache, "page", key -> {
+            loading.countDown();
+            await(release);
+            return "loaded";
+        }));
+        await(loading);
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> loader.get(cache, "page", key -> "second load"));
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.ecommerce.sbecom.config;
+
+import com.ecommerce.sbecom.models.Address;
+import com.ecommerce.sbecom.models.Cart;
+import com.ecommerce.sbecom.models.CartItem;
+import com.ecommerce.sbecom.models.Order;
+import com.ecommerce.sbecom.models.OrderItems;
+import com.ecommerce.sbecom.models.Product;
+import com.ecommerce.sbecom.models.User;
+import com.ecommerce.sbecom.support.Benchmarks;
+import com.ecommerce.sbecom.support.CheckoutIntegrationTest;
+import com.ecommerce.sbecom.support.SizedOperation;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cart items and orders go out as JDBC batches with pooled sequences. The opt-in latency run compares them with
+ * the row-by-row pattern IDENTITY forces on Hibernate (one {@code INSERT ... RETURNING id} round trip per row).
+ * Also checks that the startup alignment moves a sequence past ids that were written outside of it.
+ */
+class InsertThroughputBenchmarkTest extends CheckoutIntegrationTest {
+
+    private static final int CART_ITEMS = 500;
+    private static final int ORDERS = 100;
+    private static final int ITEMS_PER_ORDER = 5;
+    private static final int[] CART_ITEM_COUNTS = {100, CART_ITEMS};
+    private static final int[] ORDER_COUNTS = {20, ORDERS};
+    private static final int RUNS = 5;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IdSequenceInitializer idSequenceInitializer;
+
+    @Test
+    void cartItemsAreInsertedInBatches() {
+        long statements = countStatements(batchedCartItems(CART_ITEMS).operation());
+
+        // One nextval per 50 ids and one batch per 50 rows instead of a round trip per row
+        assertThat(statements).isLessThanOrEqualTo(CART_ITEMS / 10);
+    }
+
+    @Test
+    void ordersAreInsertedInBatches() {
+        long statements = countStatements(batchedOrders(ORDERS).operation());
+
+        assertThat(statements).isLessThanOrEqualTo(ORDERS * (1 + ITEMS_PER_ORDER) / 10);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void insertLatency() {
+        Benchmarks.latency("Batched cart item insert, rows", CART_ITEM_COUNTS, RUNS, this::batchedCartItems);
+        Benchmarks.latency("Row-by-row cart item insert, rows", CART_ITEM_COUNTS, RUNS, this::rowByRowCartItems);
+        Benchmarks.latency("Batched order insert, orders", ORDER_COUNTS, RUNS, this::batchedOrders);
+        Benchmarks.latency("Row-by-row order insert, orders", ORDER_COUNTS, RUNS, this::rowByRowOrders);
+    }
+
+    @Test
+    void alignmentMovesSequencesPastExistingIds() {
+        Long highest = jdbcTemplate.queryForObject("SELECT nextval('cart_items_seq')", Long.class) + 10_000;
+        Cart cart = cart(customer());
+        Product product = product(1);
+        jdbcTemplate.update("INSERT INTO cart_items (cart_item_id, cart_id, product_id, quantity, discount, product_price) "
+                + "VALUES (?, ?, ?, 1, 0, 10)", highest, cart.getCartId(), product.getProductId());
+
+        idSequenceInitializer.afterSingletonsInstantiated();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT nextval('cart_items_seq')", Long.class)).isGreaterThan(highest);
+    }
+
+    private SizedOperation batchedCartItems(int rows) {
+        Cart cart = cart(customer());
+        Product product = product(1_000);
+        return SizedOperation.of(() -> transactionTemplate.executeWithoutResult(status -> {
+            Cart managedCart = entityManager.getReference(Cart.class, cart.getCartId());
+            Product managedProduct = entityManager.getReference(Product.class, product.getProductId());
+            for (int i = 0; i < rows; i++) {
+                entityManager.persist(new CartItem(null, managedCart, managedProduct, 1, 0, 10));
+            }
+        }));
+    }
+
+    // What IDENTITY makes Hibernate do: one INSERT ... RETURNING round trip per row
+    private SizedOperation rowByRowCartItems(int rows) {
+        Cart cart = cart(customer());
+        Product product = product(1_000);
+        return SizedOperation.of(() -> transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < rows; i++) {
+                jdbcTemplate.queryForObject("INSERT INTO cart_items (cart_item_id, cart_id, product_id, quantity, discount, product_price) "
+                        + "VALUES (nextval('cart_items_seq'), ?, ?, 1, 0, 10) RETURNING cart_item_id",
+                        Long.class, cart.getCartId(), product.getProductId());
+            }
+        }));
+    }
+
+    private SizedOperation batchedOrders(int orders) {
+        User user = customer();
+        Long addressId = address(user);
+        List<Product> products = orderProducts();
+        return SizedOperation.of(() -> transactionTemplate.executeWithoutResult(status -> {
+            Address address = entityManager.getReference(Address.class, addressId);
+            for (int o = 0; o < orders; o++) {
+                Order order = new Order();
+                order.setEmail(user.getEmail());
+                order.setOrderDate(LocalDate.now());
+                order.setTotalAmount(10.0 * ITEMS_PER_ORDER);
+                order.setOrderStatus("Order Accepted !");
+                order.setAddress(address);
+                for (Product product : products) {
+                    OrderItems item = new OrderItems(null, entityManager.getReference(Product.class, product.getProductId()),
+                            order, 1, 0, 10);
+                    order.getOrderItems().add(item);
+                }
+                entityManager.persist(order);
+            }
+        }));
+    }
+
+    private SizedOperation rowByRowOrders(int orders) {
+        User user = customer();
+        Long addressId = address(user);
+        List<Product> products = orderProducts();
+        return SizedOperation.of(() -> transactionTemplate.executeWithoutResult(status -> {
+            for (int o = 0; o < orders; o++) {
+                Long orderId = jdbcTemplate.queryForObject("INSERT INTO orders (order_id, email, order_date, total_amount, order_status, address_id) "
+                        + "VALUES (nextval('orders_seq'), ?, CURRENT_DATE, ?, 'Order Accepted !', ?) RETURNING order_id",
+                        Long.class, user.getEmail(), 10.0 * ITEMS_PER_ORDER, addressId);
+                for (Product product : products) {
+                    jdbcTemplate.queryForObject("INSERT INTO order_items (order_item_id, product_id, order_id, quantity, discount, ordered_product_price) "
+                            + "VALUES (nextval('order_items_seq'), ?, ?, 1, 0, 10) RETURNING order_item_id",
+                            Long.class, product.getProductId(), orderId);
+                }
+            }
+        }));
+    }
+
+    private List<Product> orderProducts() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            products.add(product(1_000));
+        }
+        return products;
+    }
+}
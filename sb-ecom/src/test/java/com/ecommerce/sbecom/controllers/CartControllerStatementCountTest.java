@@ -0,0 +1,126 @@
+package com.ecommerce.sbecom.controllers;
+
+import com.ecommerce.sbecom.models.AppRole;
+import com.ecommerce.sbecom.models.Cart;
+import com.ecommerce.sbecom.models.User;
+import com.ecommerce.sbecom.repositories.CartRepository;
+import com.ecommerce.sbecom.repositories.RoleRepository;
+import com.ecommerce.sbecom.repositories.UserRepository;
+import com.ecommerce.sbecom.security.jwt.JwtUtils;
+import com.ecommerce.sbecom.security.services.UserDetailsImpl;
+import com.ecommerce.sbecom.support.PostgresIntegrationTest;
+import com.ecommerce.sbecom.utils.AuthUtil;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The current user is resolved once per request: AuthTokenFilter puts the cached principal into
+ * RequestUserContext and every AuthUtil lookup reads it from there.
+ */
+@AutoConfigureMockMvc
+class CartControllerStatementCountTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private AuthUtil authUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void createUserWithCart() {
+        User user = transactionTemplate.execute(status -> userRepository.findByUsername("cartreader").orElseGet(() -> {
+            User created = new User("secret", "cartreader@example.com", "cartreader");
+            created.setRoles(new HashSet<>(Set.of(roleRepository.findByRoleName(AppRole.ROLE_USER).orElseThrow())));
+            return userRepository.save(created);
+        }));
+        if (cartRepository.findCartByEmail(user.getEmail()) == null) {
+            Cart cart = new Cart();
+            cart.setUser(user);
+            cartRepository.save(cart);
+        }
+    }
+
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getCartRunsOneQueryAndLoadsTheUserOnce() throws Exception {
+        String bearer = "Bearer " + jwtUtils.generateTokenFromUsername("cartreader");
+        // First call fills the principal cache; the one measured is the steady state
+        mockMvc.perform(get("/api/carts/carts/users/cart").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk());
+
+        Statistics statistics = statistics();
+        statistics.clear();
+        mockMvc.perform(get("/api/carts/carts/users/cart").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk());
+
+        // findCartByEmail is the only query; the user row comes with the cart and is not looked up again.
+        // The remaining statements are the cart's eager user (with roles) and its lazy items
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).isLessThanOrEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void authUtilLookupsShareOneUserQuery() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        User stored = userRepository.findByUsername("cartreader").orElseThrow();
+        UserDetailsImpl principal = UserDetailsImpl.build(stored);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        Statistics statistics = statistics();
+        statistics.clear();
+        for (int i = 0; i < 3; i++) {
+            assertThat(authUtil.loggedInEmail()).isEqualTo("cartreader@example.com");
+            assertThat(authUtil.loggedInUserId()).isEqualTo(stored.getUserId());
+            assertThat(authUtil.loggedInUser().getUsername()).isEqualTo("cartreader");
+        }
+
+        assertThat(statistics.getQueryExecutionCount()).isZero();
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).isEqualTo(1);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,116 @@
+package com.ecommerce.sbecom.controllers;
+
+import com.ecommerce.sbecom.models.Cart;
+import com.ecommerce.sbecom.models.Product;
+import com.ecommerce.sbecom.security.jwt.JwtUtils;
+import com.ecommerce.sbecom.support.CheckoutIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The cart export is admin only and streams the same carts as one NDJSON line or one array element each.
+ */
+@AutoConfigureMockMvc
+class CartExportControllerTest extends CheckoutIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Cart twoLines;
+    private Cart empty;
+
+    @BeforeEach
+    void carts() {
+        Product first = product(10);
+        Product second = product(10);
+        twoLines = cart(customer(), first, 2, second, 1);
+        empty = cart(customer());
+    }
+
+    @Test
+    void exportNeedsAnAdmin() throws Exception {
+        mockMvc.perform(get("/api/admin/carts/export"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/admin/carts/export").header(HttpHeaders.AUTHORIZATION, bearer("user1")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void exportsOneCartPerLine() throws Exception {
+        MvcResult exported = export("ndjson");
+
+        assertThat(exported.getResponse().getContentType()).startsWith(MediaType.APPLICATION_NDJSON_VALUE);
+        String body = exported.getResponse().getContentAsString();
+        assertThat(body).endsWith("\n");
+        List<JsonNode> carts = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            carts.add(objectMapper.readTree(line));
+        }
+        assertExported(carts);
+    }
+
+    @Test
+    void exportsAJsonArray() throws Exception {
+        MvcResult exported = export("json");
+
+        assertThat(exported.getResponse().getContentType()).startsWith(MediaType.APPLICATION_JSON_VALUE);
+        JsonNode array = objectMapper.readTree(exported.getResponse().getContentAsString());
+        assertThat(array.isArray()).isTrue();
+        List<JsonNode> carts = new ArrayList<>();
+        array.forEach(carts::add);
+        assertExported(carts);
+    }
+
+    private MvcResult export(String format) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/admin/carts/export")
+                        .param("format", format)
+                        .header(HttpHeaders.AUTHORIZATION, bearer("admin")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    private void assertExported(List<JsonNode> carts) {
+        JsonNode exportedTwoLines = find(carts, twoLines);
+        assertThat(exportedTwoLines.get("totalPrice").asDouble()).isEqualTo(30.0);
+        assertThat(exportedTwoLines.get("products")).hasSize(2);
+        assertThat(find(carts, empty).get("products")).isEmpty();
+        assertThat(carts.stream().map(cart -> cart.get("cartId").asLong())).doesNotHaveDuplicates();
+    }
+
+    private static JsonNode find(List<JsonNode> carts, Cart cart) {
+        return carts.stream()
+                .filter(exported -> exported.get("cartId").asLong() == cart.getCartId())
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Cart " + cart.getCartId() + " missing from the export"));
+    }
+
+    private String bearer(String username) {
+        return "Bearer " + jwtUtils.generateTokenFromUsername(username);
+    }
+}
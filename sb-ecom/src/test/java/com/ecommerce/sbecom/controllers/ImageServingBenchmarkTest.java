@@ -0,0 +1,146 @@
+package com.ecommerce.sbecom.controllers;
+
+import com.ecommerce.sbecom.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Image serving through the real Tomcat: validators and caching headers (with Spring Security's headers on top,
+ * since /images/** runs through the filter chain), 304s and ranges, and an opt-in images/sec benchmark
+ * ({@code -Dbenchmarks=true}) for a small file, a sendfile-sized file and conditional revalidation.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ImageServingBenchmarkTest extends PostgresIntegrationTest {
+
+    private static final int CLIENTS = 16;
+    private static final long SECONDS = 5;
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${project.images}")
+    private String imagesPath;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final List<Path> files = new ArrayList<>();
+    private String smallImage;
+    private String largeImage;
+
+    @BeforeEach
+    void writeImages() throws IOException {
+        smallImage = image(8 * 1024);
+        largeImage = image(256 * 1024);
+    }
+
+    @AfterEach
+    void deleteImages() throws IOException {
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void immutableImageCarriesValidatorsAndSecurityHeaders() throws Exception {
+        HttpResponse<byte[]> response = get(largeImage, null);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).hasSize(256 * 1024);
+        assertThat(response.headers().firstValue("Cache-Control")).hasValueSatisfying(value ->
+                assertThat(value).contains("immutable").contains("max-age=31536000"));
+        assertThat(response.headers().firstValue("X-Content-Type-Options")).hasValue("nosniff");
+        String etag = response.headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<byte[]> revalidated = get(largeImage, etag);
+        assertThat(revalidated.statusCode()).isEqualTo(304);
+        assertThat(revalidated.body()).isEmpty();
+
+        HttpResponse<byte[]> range = client.send(request(smallImage).header("Range", "bytes=0-99").build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(range.statusCode()).isEqualTo(206);
+        assertThat(range.body()).hasSize(100);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void imagesPerSecond() throws Exception {
+        String etag = get(largeImage, null).headers().firstValue("ETag").orElseThrow();
+        System.out.printf("8 KiB image:   %,.0f images/s%n", throughput(smallImage, null));
+        System.out.printf("256 KiB image: %,.0f images/s%n", throughput(largeImage, null));
+        System.out.printf("304 revalidation: %,.0f responses/s%n", throughput(largeImage, etag));
+    }
+
+    private double throughput(String fileName, String ifNoneMatch) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                results.add(executor.submit(() -> {
+                    int served = 0;
+                    while (System.nanoTime() < deadline) {
+                        int status = get(fileName, ifNoneMatch).statusCode();
+                        assertThat(status).isIn(200, 304);
+                        served++;
+                    }
+                    return served;
+                }));
+            }
+            long served = 0;
+            for (Future<Integer> result : results) {
+                served += result.get();
+            }
+            return served / (double) SECONDS;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private HttpResponse<byte[]> get(String fileName, String ifNoneMatch) throws IOException, InterruptedException {
+        HttpRequest.Builder request = request(fileName);
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private HttpRequest.Builder request(String fileName) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/images/" + fileName));
+    }
+
+    // UUID-named like the files FileServiceImpl writes, so the immutable caching applies
+    private String image(int size) throws IOException {
+        Path directory = Paths.get(imagesPath);
+        Files.createDirectories(directory);
+        String fileName = UUID.randomUUID() + ".png";
+        byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        Path file = directory.resolve(fileName);
+        Files.write(file, content);
+        files.add(file);
+        return fileName;
+    }
+}
@@ -0,0 +1,146 @@
+package com.ecommerce.sbecom.controllers;
+
+import com.ecommerce.sbecom.models.Category;
+import com.ecommerce.sbecom.repositories.CategoryRepository;
+import com.ecommerce.sbecom.security.jwt.JwtUtils;
+import com.ecommerce.sbecom.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The import reads its request body directly, capped by spring.app.import.maxBytes instead of the multipart limits,
+ * and reports every row it could not import by its line number.
+ */
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "spring.app.import.maxBytes=2048")
+class ProductImportControllerTest extends PostgresIntegrationTest {
+
+    private static final String HEADER = "productName,productPrice,productQuantity,categoryName\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @BeforeEach
+    void importsCategory() {
+        if (categoryRepository.findByCategoryName("Imports") == null) {
+            Category category = new Category();
+            category.setCategoryName("Imports");
+            categoryRepository.save(category);
+        }
+    }
+
+    @Test
+    void importsAStreamedCsvBody() throws Exception {
+        String csv = HEADER + "Imported " + UUID.randomUUID() + ",12.5,3,Imports\n";
+
+        String report = importBody("text/csv", csv);
+
+        assertThat(report).contains("\"type\":\"summary\",\"rows\":1,\"imported\":1,\"failed\":0");
+    }
+
+    @Test
+    void importsNdjson() throws Exception {
+        String ndjson = "{\"productName\":\"Imported " + UUID.randomUUID() + "\",\"productPrice\":12.5,"
+                + "\"productQuantity\":3,\"categoryName\":\"Imports\"}\n"
+                + "{not json\n";
+
+        String report = importBody(MediaType.APPLICATION_NDJSON_VALUE, ndjson);
+
+        assertThat(report).contains("\"type\":\"error\",\"line\":2,\"message\":\"Malformed JSON");
+        assertThat(report).contains("\"type\":\"summary\",\"rows\":2,\"imported\":1,\"failed\":1");
+    }
+
+    @Test
+    void reportsRejectedRowsByLine() throws Exception {
+        String csv = HEADER
+                + "Imported " + UUID.randomUUID() + ",-1,3,Imports\n"
+                + "Imported " + UUID.randomUUID() + ",abc,3,Imports\n"
+                + "Imported " + UUID.randomUUID() + ",12.5,3,No such category\n"
+                + "Imported " + UUID.randomUUID() + ",12.5,3,Imports\n";
+
+        String report = importBody("text/csv", csv);
+
+        assertThat(report).contains("\"line\":2,\"message\":\"productPrice must be zero or more\"");
+        assertThat(report).contains("\"line\":3,\"message\":\"Invalid number");
+        assertThat(report).contains("\"line\":4,\"message\":\"Category No such category not found\"");
+        assertThat(report).contains("\"type\":\"summary\",\"rows\":4,\"imported\":1,\"failed\":3");
+    }
+
+    @Test
+    void reportsADuplicateWithinTheFile() throws Exception {
+        String name = "Imported " + UUID.randomUUID();
+        String csv = HEADER + name + ",12.5,3,Imports\n" + name + ",13,3,Imports\n";
+
+        String report = importBody("text/csv", csv);
+
+        assertThat(report).contains("\"line\":3,\"message\":\"Product " + name + " already exists in category Imports\"");
+        assertThat(report).contains("\"type\":\"summary\",\"rows\":2,\"imported\":1,\"failed\":1");
+    }
+
+    @Test
+    void aRowTheDatabaseRejectsOnlyFailsItself() throws Exception {
+        // Passes validation but not the products.product_name column, which breaks the batch insert
+        String csv = HEADER
+                + "Imported " + UUID.randomUUID() + ",12.5,3,Imports\n"
+                + "x".repeat(300) + ",12.5,3,Imports\n"
+                + "Imported " + UUID.randomUUID() + ",12.5,3,Imports\n";
+
+        String report = importBody("text/csv", csv);
+
+        assertThat(report).contains("\"type\":\"error\",\"line\":3,\"message\":\"Row was not saved");
+        assertThat(report).doesNotContain("\"line\":2,").doesNotContain("\"line\":4,");
+        assertThat(report).contains("\"type\":\"summary\",\"rows\":3,\"imported\":2,\"failed\":1");
+    }
+
+    @Test
+    void importNeedsAnAdmin() throws Exception {
+        mockMvc.perform(post("/api/admin/products/import")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtils.generateTokenFromUsername("user1"))
+                        .contentType("text/csv")
+                        .content(HEADER))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void rejectsABodyOverTheImportLimit() throws Exception {
+        byte[] body = new byte[4096];
+        mockMvc.perform(post("/api/admin/products/import")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtils.generateTokenFromUsername("admin"))
+                        .contentType("text/csv")
+                        .content(body))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String importBody(String contentType, String body) throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/admin/products/import")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtils.generateTokenFromUsername("admin"))
+                        .contentType(contentType)
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
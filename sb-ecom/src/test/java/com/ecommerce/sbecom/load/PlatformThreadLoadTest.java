@@ -0,0 +1,7 @@
+package com.ecommerce.sbecom.load;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+class PlatformThreadLoadTest extends ThreadModelLoadTest {
+}
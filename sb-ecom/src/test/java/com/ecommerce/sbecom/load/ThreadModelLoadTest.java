@@ -0,0 +1,171 @@
+package com.ecommerce.sbecom.load;
+
+import com.ecommerce.sbecom.models.Product;
+import com.ecommerce.sbecom.models.User;
+import com.ecommerce.sbecom.security.jwt.JwtUtils;
+import com.ecommerce.sbecom.support.CheckoutIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test of {@code /api/public/products} and checkout at rising concurrency. The two subclasses run it with
+ * virtual and with platform request threads; compare their output for p99 and for the highest concurrency
+ * that stays error-free under {@link #P99_LIMIT_MS}. Opt-in: {@code mvn test -Dbenchmarks=true -Dtest=*ThreadLoadTest}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+abstract class ThreadModelLoadTest extends CheckoutIntegrationTest {
+
+    private static final int[] CATALOG_CONCURRENCY = {32, 128, 512};
+    private static final int[] CHECKOUT_CONCURRENCY = {16, 64, 256};
+    private static final int CATALOG_REQUESTS_PER_CLIENT = 20;
+    private static final int CHECKOUT_REQUESTS_PER_CLIENT = 2;
+    private static final int PRODUCTS = 20;
+    private static final long P99_LIMIT_MS = 500;
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.threads.virtual.enabled}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void catalogAndCheckoutUnderLoad() throws Exception {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(product(1_000_000));
+        }
+        String mode = virtualThreads ? "virtual" : "platform";
+
+        int sustainedCatalog = 0;
+        for (int clients : CATALOG_CONCURRENCY) {
+            Result result = run(clients, CATALOG_REQUESTS_PER_CLIENT, client -> {
+                int page = client % 5;
+                return HttpRequest.newBuilder(uri("/api/public/products?pageNumber=" + page)).GET().build();
+            });
+            result.print(mode, "GET /api/public/products", clients);
+            if (result.sustainable()) {
+                sustainedCatalog = clients;
+            }
+        }
+
+        int sustainedCheckout = 0;
+        for (int clients : CHECKOUT_CONCURRENCY) {
+            // One customer with a filled cart per checkout, prepared before the clock starts
+            List<HttpRequest> checkouts = new ArrayList<>();
+            for (int i = 0; i < clients * CHECKOUT_REQUESTS_PER_CLIENT; i++) {
+                User user = customer();
+                Long addressId = address(user);
+                cart(user, products.get(i % PRODUCTS), 1, products.get((i + 7) % PRODUCTS), 2);
+                checkouts.add(HttpRequest.newBuilder(uri("/api/order/users/payments/card"))
+                        .header("Authorization", "Bearer " + jwtUtils.generateTokenFromUsername(user.getUsername()))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"addressId\":" + addressId
+                                + ",\"paymentMethod\":\"card\",\"pgName\":\"stripe\",\"pgPaymentId\":\"pi_load\","
+                                + "\"pgStatus\":\"succeeded\",\"pgResponseMessage\":\"ok\"}"))
+                        .build());
+            }
+            AtomicInteger next = new AtomicInteger();
+            Result result = run(clients, CHECKOUT_REQUESTS_PER_CLIENT, client -> checkouts.get(next.getAndIncrement()));
+            result.print(mode, "POST checkout", clients);
+            if (result.sustainable()) {
+                sustainedCheckout = clients;
+            }
+        }
+
+        System.out.printf("[%s] max sustainable concurrency (p99 < %d ms, no errors): catalog %d, checkout %d%n",
+                mode, P99_LIMIT_MS, sustainedCatalog, sustainedCheckout);
+        assertThat(sustainedCatalog).isPositive();
+    }
+
+    private Result run(int clients, int requestsPerClient, RequestFactory requests) throws Exception {
+        long[] latencies = new long[clients * requestsPerClient];
+        AtomicInteger recorded = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        long began;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                int clientId = c;
+                futures.add(executor.submit((Callable<Void>) () -> {
+                    start.await();
+                    for (int r = 0; r < requestsPerClient; r++) {
+                        HttpRequest request = requests.create(clientId);
+                        long sent = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies[recorded.getAndIncrement()] = System.nanoTime() - sent;
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            began = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return new Result(latencies, errors.get(), System.nanoTime() - began);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    @FunctionalInterface
+    private interface RequestFactory {
+        HttpRequest create(int client);
+    }
+
+    private record Result(long[] latencies, int errors, long elapsedNanos) {
+
+        double percentileMs(double percentile) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+
+        boolean sustainable() {
+            return errors == 0 && percentileMs(0.99) < P99_LIMIT_MS;
+        }
+
+        void print(String mode, String endpoint, int clients) {
+            System.out.printf("[%s] %-26s %4d clients: %,8.0f req/s  p50 %7.1f ms  p99 %7.1f ms  errors %d%n",
+                    mode, endpoint, clients, latencies.length / (elapsedNanos / 1e9),
+                    percentileMs(0.50), percentileMs(0.99), errors);
+        }
+    }
+}
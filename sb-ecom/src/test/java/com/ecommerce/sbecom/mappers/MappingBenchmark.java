@@ -0,0 +1,126 @@
+package com.ecommerce.sbecom.mappers;
+
+import com.ecommerce.sbecom.models.Cart;
+import com.ecommerce.sbecom.models.CartItem;
+import com.ecommerce.sbecom.models.Category;
+import com.ecommerce.sbecom.models.Product;
+import com.ecommerce.sbecom.payload.CartDTO;
+import com.ecommerce.sbecom.payload.ProductDTO;
+import com.ecommerce.sbecom.support.Benchmarks;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.RunnerException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mapping throughput of a 50-product catalog page and a 50-line cart: ModelMapper as the services used it
+ * before, against the generated MapStruct mappers. Run with {@code -Dbenchmarks=true}; the JSON equality
+ * check always runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MappingBenchmark {
+
+    private static final int LINES = 50;
+
+    private ModelMapper modelMapper;
+    private ProductMapper productMapper;
+    private CartMapper cartMapper;
+    private List<Product> page;
+    private Cart cart;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        productMapper = Mappers.getMapper(ProductMapper.class);
+        cartMapper = Mappers.getMapper(CartMapper.class);
+        ReflectionTestUtils.setField(cartMapper, "productMapper", productMapper);
+
+        Category category = new Category();
+        category.setCategoryId(1L);
+        category.setCategoryName("Electronics");
+        page = new ArrayList<>(LINES);
+        cart = new Cart();
+        cart.setCartId(7L);
+        cart.setTotalPrice(0.0);
+        for (int i = 0; i < LINES; i++) {
+            Product product = new Product();
+            product.setProductId((long) i);
+            product.setProductName("Product " + i);
+            product.setProductDescription("Description of product " + i);
+            product.setProductImage("product-" + i + ".png");
+            product.setProductQuantity(100 + i);
+            product.setProductPrice(10.0 + i);
+            product.setProductDiscount(5.0);
+            product.setSpecialPrice((10.0 + i) * 0.95);
+            product.setCategory(category);
+            page.add(product);
+
+            CartItem item = new CartItem();
+            item.setCartItemId((long) i);
+            item.setCart(cart);
+            item.setProduct(product);
+            item.setQuantity(1 + i % 3);
+            item.setProductPrice(product.getSpecialPrice());
+            cart.getCartItems().add(item);
+            cart.setTotalPrice(cart.getTotalPrice() + product.getSpecialPrice() * item.getQuantity());
+        }
+    }
+
+    @Benchmark
+    public List<ProductDTO> pageWithModelMapper() {
+        return page.stream().map(product -> modelMapper.map(product, ProductDTO.class)).toList();
+    }
+
+    @Benchmark
+    public List<ProductDTO> pageWithMapStruct() {
+        return page.stream().map(productMapper::toDTO).toList();
+    }
+
+    @Benchmark
+    public CartDTO cartWithModelMapper() {
+        CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
+        cartDTO.setProducts(cart.getCartItems().stream().map(item -> {
+            ProductDTO productDTO = modelMapper.map(item.getProduct(), ProductDTO.class);
+            productDTO.setProductQuantity(item.getQuantity());
+            return productDTO;
+        }).toList());
+        return cartDTO;
+    }
+
+    @Benchmark
+    public CartDTO cartWithMapStruct() {
+        return cartMapper.toDTO(cart);
+    }
+
+    @Test
+    void generatedMappersWriteTheSameJson() throws Exception {
+        setUp();
+        ObjectMapper json = new ObjectMapper();
+        assertThat(json.writeValueAsString(pageWithMapStruct())).isEqualTo(json.writeValueAsString(pageWithModelMapper()));
+        assertThat(json.writeValueAsString(cartWithMapStruct())).isEqualTo(json.writeValueAsString(cartWithModelMapper()));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void runBenchmarks() throws RunnerException {
+        Benchmarks.run(MappingBenchmark.class);
+    }
+}
@@ -0,0 +1,114 @@
+package com.ecommerce.sbecom.search;
+
+import com.ecommerce.sbecom.cache.CatalogVersion;
+import com.ecommerce.sbecom.models.Category;
+import com.ecommerce.sbecom.payload.ProductDTO;
+import com.ecommerce.sbecom.repositories.CategoryRepository;
+import com.ecommerce.sbecom.services.ProductService;
+import com.ecommerce.sbecom.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Product writes reach the in-memory search index and bump the public catalog ETag only when their
+ * transaction commits.
+ */
+class ProductSearchIndexConsistencyTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Test
+    void rolledBackUpdateLeavesTheIndexAlone() {
+        ProductDTO product = addProduct("Harmonica");
+        String etag = catalogVersion.productsETag();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            productService.updateProduct(product.getProductId(), withName(product, "Ukulele"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(productSearchIndex.search("harmonica", null).ids()).contains(product.getProductId());
+        assertThat(productSearchIndex.search("ukulele", null).ids()).doesNotContain(product.getProductId());
+        assertThat(catalogVersion.productsETag()).isEqualTo(etag);
+    }
+
+    @Test
+    void committedUpdateIsIndexed() {
+        ProductDTO product = addProduct("Kazoo");
+        String etag = catalogVersion.productsETag();
+
+        productService.updateProduct(product.getProductId(), withName(product, "Theremin"));
+
+        assertThat(productSearchIndex.search("theremin", null).ids()).contains(product.getProductId());
+        assertThat(productSearchIndex.search("kazoo", null).ids()).doesNotContain(product.getProductId());
+        assertThat(catalogVersion.productsETag()).isNotEqualTo(etag);
+    }
+
+    @Test
+    void rolledBackDeleteKeepsTheProductSearchable() {
+        ProductDTO product = addProduct("Ocarina");
+        String etag = catalogVersion.productsETag();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            productService.deleteProduct(product.getProductId());
+            status.setRollbackOnly();
+        });
+
+        assertThat(productSearchIndex.search("ocarina", null).ids()).contains(product.getProductId());
+        assertThat(catalogVersion.productsETag()).isEqualTo(etag);
+    }
+
+    @Test
+    void committedDeleteIsRemoved() {
+        ProductDTO product = addProduct("Bagpipes");
+        String etag = catalogVersion.productsETag();
+
+        productService.deleteProduct(product.getProductId());
+
+        assertThat(productSearchIndex.search("bagpipes", null).ids()).doesNotContain(product.getProductId());
+        assertThat(catalogVersion.productsETag()).isNotEqualTo(etag);
+    }
+
+    private ProductDTO addProduct(String name) {
+        Category category = categoryRepository.findByCategoryName("Instruments");
+        if (category == null) {
+            category = new Category();
+            category.setCategoryName("Instruments");
+            category = categoryRepository.save(category);
+        }
+        ProductDTO product = new ProductDTO();
+        product.setProductName(name + " " + UUID.randomUUID());
+        product.setProductDescription("Consistency check");
+        product.setProductQuantity(5);
+        product.setProductPrice(20);
+        return productService.addProduct(category.getCategoryId(), product);
+    }
+
+    private static ProductDTO withName(ProductDTO product, String name) {
+        ProductDTO update = new ProductDTO();
+        update.setProductName(name);
+        update.setProductDescription(product.getProductDescription());
+        update.setProductQuantity(product.getProductQuantity());
+        update.setProductPrice(product.getProductPrice());
+        update.setProductDiscount(product.getProductDiscount());
+        return update;
+    }
+}
@@ -0,0 +1,104 @@
+package com.ecommerce.sbecom.search;
+
+import com.ecommerce.sbecom.models.Category;
+import com.ecommerce.sbecom.models.Product;
+import com.ecommerce.sbecom.search.ProductSearchIndex.SearchResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+    private Category phones;
+    private Category laptops;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(64, 3, new SimpleMeterRegistry());
+        phones = category(1L, "Mobile Phones");
+        laptops = category(2L, "Laptops");
+    }
+
+    @Test
+    void reportsTheTotalEvenWhenFewerIdsAreReturned() {
+        for (long id = 1; id <= 5; id++) {
+            index.index(product(id, "Phone case " + id, phones));
+        }
+
+        SearchResult result = index.search("case", null);
+
+        assertThat(result.ids()).hasSize(3);
+        assertThat(result.totalMatches()).isEqualTo(5);
+        assertThat(result.truncated()).isTrue();
+    }
+
+    @Test
+    void explicitLimitReachesPastTheConfiguredMaximum() {
+        for (long id = 1; id <= 5; id++) {
+            index.index(product(id, "Phone case " + id, phones));
+        }
+
+        SearchResult result = index.search("case", null, 5);
+
+        // Equal scores are ordered by id, so the best five are all of them in id order
+        assertThat(result.ids()).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(result.truncated()).isFalse();
+    }
+
+    @Test
+    void keepsTheBestMatchesFirst() {
+        index.index(product(1L, "Charger", phones, "Works with every phone"));
+        index.index(product(2L, "Phone stand", laptops));
+        index.index(product(3L, "Phone", phones, "Phone"));
+
+        // 3 matches in name and description, 2 in its name, 1 only through description and category
+        SearchResult result = index.search("phone", null, 2);
+
+        assertThat(result.ids()).containsExactly(3L, 2L);
+        assertThat(result.totalMatches()).isEqualTo(3);
+    }
+
+    @Test
+    void categoryFilterUsesLikeSemanticsLikeTheDatabase() {
+        index.index(product(1L, "Phone charger", phones));
+        index.index(product(2L, "Laptop charger", laptops));
+
+        assertThat(index.search("charger", "Laptops").ids()).containsExactly(2L);
+        assertThat(index.search("charger", "Mobile%").ids()).containsExactly(1L);
+        assertThat(index.search("charger", "%").ids()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search("charger", "Lapto_s").ids()).containsExactly(2L);
+        // LIKE is case-sensitive and anchored, as in PostgreSQL
+        assertThat(index.search("charger", "laptops").isEmpty()).isTrue();
+        assertThat(index.search("charger", "Laptop").isEmpty()).isTrue();
+    }
+
+    @Test
+    void likePatternHonoursEscapes() {
+        assertThat(ProductSearchIndex.likePattern("100\\%").matcher("100%").matches()).isTrue();
+        assertThat(ProductSearchIndex.likePattern("100\\%").matcher("1000").matches()).isFalse();
+        assertThat(ProductSearchIndex.likePattern("a.b").matcher("axb").matches()).isFalse();
+    }
+
+    private static Category category(Long id, String name) {
+        Category category = new Category();
+        category.setCategoryId(id);
+        category.setCategoryName(name);
+        return category;
+    }
+
+    private static Product product(Long id, String name, Category category) {
+        return product(id, name, category, null);
+    }
+
+    private static Product product(Long id, String name, Category category, String description) {
+        Product product = new Product();
+        product.setProductId(id);
+        product.setProductName(name);
+        product.setProductDescription(description);
+        product.setCategory(category);
+        return product;
+    }
+}
@@ -0,0 +1,142 @@
+package com.ecommerce.sbecom.security;
+
+import com.ecommerce.sbecom.models.AppRole;
+import com.ecommerce.sbecom.models.User;
+import com.ecommerce.sbecom.repositories.RoleRepository;
+import com.ecommerce.sbecom.repositories.UserRepository;
+import com.ecommerce.sbecom.support.PostgresIntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sign-in against the bounded BCrypt pool: a full queue answers 503, and a hash of another cost is re-stored at
+ * the configured strength after a successful login.
+ */
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "spring.app.passwordHashing.strength=5",
+        "spring.app.passwordHashing.threads=1",
+        "spring.app.passwordHashing.queueCapacity=1"
+})
+class PasswordHashingTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void fullQueueAnswers503WithRetryAfter() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // BCrypt reads the raw password on the pool thread, so this one holds the only worker until released
+        CharSequence blocking = new BlockingPassword(running, release);
+        CompletableFuture<String> busy = CompletableFuture.supplyAsync(() -> passwordEncoder.encode(blocking));
+        CompletableFuture<String> queued = null;
+        try {
+            assertThat(running.await(10, TimeUnit.SECONDS)).isTrue();
+            queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("queued"));
+            awaitQueued(1);
+
+            mockMvc.perform(post("/api/auth/signin")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"username\":\"user1\",\"password\":\"password1\"}"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                    .andExpect(jsonPath("$.message").value("Too many password hashing requests, please retry shortly"));
+        } finally {
+            release.countDown();
+        }
+        busy.get(10, TimeUnit.SECONDS);
+        queued.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void loginRehashesAWeakerHashAtTheConfiguredStrength() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = new User(new BCryptPasswordEncoder(4).encode("rehashMe"), "rehash@example.com", "rehash");
+            user.setRoles(new HashSet<>(Set.of(roleRepository.findByRoleName(AppRole.ROLE_USER).orElseThrow())));
+            userRepository.save(user);
+        });
+
+        mockMvc.perform(post("/api/auth/signin")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"rehash\",\"password\":\"rehashMe\"}"))
+                .andExpect(status().isOk());
+
+        String stored = userRepository.findByUsername("rehash").orElseThrow().getPassword();
+        assertThat(stored).startsWith("$2a$05$");
+        assertThat(passwordEncoder.matches("rehashMe", stored)).isTrue();
+    }
+
+    private void awaitQueued(int tasks) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get("executor.queued").tag("name", "passwordHashing").gauge().value() < tasks) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private record BlockingPassword(CountDownLatch running, CountDownLatch release) implements CharSequence {
+
+        @Override
+        public String toString() {
+            running.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "blocked";
+        }
+
+        @Override
+        public int length() {
+            return "blocked".length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return "blocked".charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return "blocked".subSequence(start, end);
+        }
+    }
+}
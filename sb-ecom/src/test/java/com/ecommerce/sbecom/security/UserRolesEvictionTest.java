@@ -0,0 +1,67 @@
+package com.ecommerce.sbecom.security;
+
+import com.ecommerce.sbecom.models.AppRole;
+import com.ecommerce.sbecom.models.Role;
+import com.ecommerce.sbecom.models.User;
+import com.ecommerce.sbecom.repositories.RoleRepository;
+import com.ecommerce.sbecom.repositories.UserRepository;
+import com.ecommerce.sbecom.security.services.UserDetailsImpl;
+import com.ecommerce.sbecom.security.services.UserDetailsServiceImpl;
+import com.ecommerce.sbecom.security.services.UserPrincipalCache;
+import com.ecommerce.sbecom.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserRolesEvictionTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void revokingARoleDropsTheCachedAuthorities() {
+        // Roles and user in one persistence context, so the cascade sees managed roles
+        transactionTemplate.executeWithoutResult(status -> {
+            Role userRole = roleRepository.findByRoleName(AppRole.ROLE_USER).orElseThrow();
+            Role sellerRole = roleRepository.findByRoleName(AppRole.ROLE_SELLER).orElseThrow();
+            User user = new User("secret", "revoked@example.com", "revoked");
+            user.setRoles(new HashSet<>(Set.of(userRole, sellerRole)));
+            userRepository.save(user);
+        });
+
+        assertThat(authorities(principal())).contains("ROLE_SELLER");
+
+        // Only user_roles changes here, the users row stays as it is
+        transactionTemplate.executeWithoutResult(status -> userRepository.findByUsername("revoked").orElseThrow()
+                .getRoles().removeIf(role -> role.getRoleName() == AppRole.ROLE_SELLER));
+
+        assertThat(authorities(principal())).containsExactly("ROLE_USER");
+    }
+
+    private UserDetailsImpl principal() {
+        return userPrincipalCache.get("revoked", username -> (UserDetailsImpl) userDetailsService.loadUserByUsername(username));
+    }
+
+    private static List<String> authorities(UserDetailsImpl principal) {
+        return principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+    }
+}
@@ -0,0 +1,99 @@
+package com.ecommerce.sbecom.security.jwt;
+
+import com.ecommerce.sbecom.support.Benchmarks;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.RunnerException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cost of authenticating one request's JWT:
+ * <ul>
+ *     <li>{@code twoParses} - the old filter: validate, then parse again for the username, each time decoding the
+ *     secret and building a new parser</li>
+ *     <li>{@code verifyOnce} - one signature check with the parser built at startup (a cache miss)</li>
+ *     <li>{@code cachedByToken} - a hot token served from the verified-token cache</li>
+ *     <li>{@code sha256Key} - only the SHA-256 the cache used to compute for its key, for comparison</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "9a4f2c8d3b7a1e6f45c8a0b3f267d8b1d4e6f3c8a9d2b5f8e3a9c8b5f6v8a3d9";
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedTokenTtlSeconds", 600L);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedTokenMaxSize", 10_000L);
+        jwtUtils.init();
+        token = jwtUtils.generateTokenFromUsername("user1");
+        jwtUtils.verifyAndGetClaims(token);
+    }
+
+    @Benchmark
+    public String twoParses() {
+        Jwts.parser().verifyWith(decodeKey()).build().parseSignedClaims(token);
+        return Jwts.parser().verifyWith(decodeKey()).build().parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    @Benchmark
+    public Claims verifyOnce() {
+        return jwtUtils.verifyUncached(token);
+    }
+
+    @Benchmark
+    public Claims cachedByToken() {
+        return jwtUtils.verifyAndGetClaims(token);
+    }
+
+    @Benchmark
+    public String sha256Key() throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static SecretKey decodeKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    }
+
+    @Test
+    void cachedClaimsMatchVerifiedClaims() {
+        setUp();
+        assertThat(cachedByToken().getSubject()).isEqualTo(verifyOnce().getSubject()).isEqualTo(twoParses())
+                .isEqualTo("user1");
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void runBenchmarks() throws RunnerException {
+        Benchmarks.run(JwtValidationBenchmark.class);
+    }
+}
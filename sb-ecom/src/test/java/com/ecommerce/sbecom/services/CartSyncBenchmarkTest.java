@@ -0,0 +1,98 @@
+package com.ecommerce.sbecom.services;
+
+import com.ecommerce.sbecom.models.Product;
+import com.ecommerce.sbecom.models.User;
+import com.ecommerce.sbecom.security.jwt.JwtUtils;
+import com.ecommerce.sbecom.support.Benchmarks;
+import com.ecommerce.sbecom.support.CheckoutIntegrationTest;
+import com.ecommerce.sbecom.support.SizedOperation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement count, and opt-in latency, of the login cart sync ({@code POST /api/carts/cart/create}) against the
+ * number of items. Products are resolved with one findAllById and the lines go out as batched inserts, so only
+ * the sequence and batch round trips grow with the cart.
+ */
+@AutoConfigureMockMvc
+class CartSyncBenchmarkTest extends CheckoutIntegrationTest {
+
+    private static final int[] ITEM_COUNTS = {1, 10, 50, 200};
+    private static final int RUNS = 5;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void stockProducts() {
+        for (int i = 0; i < ITEM_COUNTS[ITEM_COUNTS.length - 1]; i++) {
+            products.add(product(100));
+        }
+    }
+
+    @Test
+    void syncStatementsStayFlatAsTheCartGrows() {
+        long[] statements = statementsBySize(ITEM_COUNTS, this::sync);
+
+        // Beyond the 1-item sync: one insert batch and at most one nextval per 50 lines
+        for (int i = 1; i < ITEM_COUNTS.length; i++) {
+            long batches = (ITEM_COUNTS[i] + BATCH_SIZE - 1) / BATCH_SIZE;
+            assertThat(statements[i]).isLessThanOrEqualTo(statements[0] + 2 * batches);
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void syncLatency() {
+        Benchmarks.latency("Cart sync, items", ITEM_COUNTS, RUNS, this::sync);
+    }
+
+    // A returning customer: the sync replaces the lines of the cart they already have
+    private SizedOperation sync(int items) {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < items; i++) {
+            body.append(i == 0 ? "" : ",")
+                    .append("{\"productId\":").append(products.get(i).getProductId()).append(",\"quantity\":2}");
+        }
+        String json = body.append(']').toString();
+        User user = customer();
+        cart(user, products.get(0), 1);
+        String bearer = "Bearer " + jwtUtils.generateTokenFromUsername(user.getUsername());
+        // Warm the principal cache so the measured request only runs the sync
+        sync(bearer, "[]");
+        return new SizedOperation(
+                () -> sync(bearer, json),
+                () -> assertThat(cartRepository.findCartByEmail(user.getEmail()).getTotalPrice()).isEqualTo(20.0 * items));
+    }
+
+    private void sync(String bearer, String json) {
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.post("/api/carts/cart/create")
+                            .header(HttpHeaders.AUTHORIZATION, bearer)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json))
+                    .andExpect(status().isCreated());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
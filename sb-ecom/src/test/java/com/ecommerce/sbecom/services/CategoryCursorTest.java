@@ -0,0 +1,44 @@
+package com.ecommerce.sbecom.services;
+
+import com.ecommerce.sbecom.payload.CategoryDTO;
+import com.ecommerce.sbecom.payload.CategoryResponse;
+import com.ecommerce.sbecom.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Walking the category listing by cursor returns every category once, in order.
+ */
+class CategoryCursorTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Test
+    void cursorPagesCoverEveryCategoryOnce() {
+        for (int i = 0; i < 5; i++) {
+            CategoryDTO category = new CategoryDTO();
+            category.setCategoryName("Cursor " + UUID.randomUUID());
+            categoryService.createCategory(category);
+        }
+        List<String> expected = categoryService.getAllCategories(0, 1000, "categoryName", "desc").getContent().stream()
+                .map(CategoryDTO::getCategoryName)
+                .toList();
+
+        List<String> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            CategoryResponse page = categoryService.getAllCategoriesAfter(cursor, 2, "categoryName", "desc", false);
+            page.getContent().forEach(category -> walked.add(category.getCategoryName()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(walked).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,67 @@
+package com.ecommerce.sbecom.services;
+
+import com.ecommerce.sbecom.models.Product;
+import com.ecommerce.sbecom.models.User;
+import com.ecommerce.sbecom.payload.OrderDTO;
+import com.ecommerce.sbecom.support.Benchmarks;
+import com.ecommerce.sbecom.support.CheckoutIntegrationTest;
+import com.ecommerce.sbecom.support.SizedOperation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checkout statement count, and opt-in latency, against cart size. The set-based placeOrder runs the same
+ * statements for a 1-line and a 50-line cart; only the rows they touch grow.
+ */
+class CheckoutBenchmarkTest extends CheckoutIntegrationTest {
+
+    private static final int[] CART_SIZES = {1, 10, 50};
+    private static final int RUNS = 5;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Test
+    void checkoutStatementsStayFlatAsTheCartGrows() {
+        long[] statements = statementsBySize(CART_SIZES, this::checkout);
+
+        // Allow for the pooled sequences fetching their next block of ids (one nextval per 50 ids)
+        assertThat(statements[statements.length - 1]).isLessThanOrEqualTo(statements[0] + 2);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void checkoutLatency() {
+        Benchmarks.latency("Checkout, cart lines", CART_SIZES, RUNS, this::checkout);
+    }
+
+    private SizedOperation checkout(int lines) {
+        User user = customer();
+        Long addressId = address(user);
+        Object[] contents = new Object[lines * 2];
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            Product product = product(100);
+            products.add(product);
+            contents[2 * i] = product;
+            contents[2 * i + 1] = 2;
+        }
+        cart(user, contents);
+
+        AtomicReference<OrderDTO> order = new AtomicReference<>();
+        return new SizedOperation(
+                () -> order.set(orderService.placeOrder(user.getEmail(), addressId,
+                        "card", "stripe", "pi_benchmark", "succeeded", "ok")),
+                () -> {
+                    assertThat(order.get().getOrderItem()).hasSize(lines);
+                    assertThat(products).allSatisfy(product -> assertThat(stockOf(product)).isEqualTo(98));
+                });
+    }
+}
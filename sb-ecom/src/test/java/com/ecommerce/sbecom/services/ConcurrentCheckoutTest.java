@@ -0,0 +1,103 @@
+package com.ecommerce.sbecom.services;
+
+import com.ecommerce.sbecom.exceptions.APIExceptions;
+import com.ecommerce.sbecom.models.Product;
+import com.ecommerce.sbecom.models.User;
+import com.ecommerce.sbecom.support.CheckoutIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Parallel checkouts against shared stock: the locked, aggregated check and the conditional decrement must
+ * never oversell, also when one product sits on several lines of the same cart.
+ */
+class ConcurrentCheckoutTest extends CheckoutIntegrationTest {
+
+    private static final int CUSTOMERS = 16;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Test
+    void repeatedLinesOfOneProductAreCheckedTogether() {
+        Product product = product(3);
+        User user = customer();
+        Long addressId = address(user);
+        cart(user, product, 2, product, 2);
+
+        assertThatThrownBy(() -> placeOrder(user, addressId))
+                .isInstanceOf(APIExceptions.class)
+                .hasMessageContaining(product.getProductName());
+        assertThat(stockOf(product)).isEqualTo(3);
+    }
+
+    @Test
+    void repeatedLinesOfOneProductAreAllTakenOffTheStock() {
+        Product product = product(10);
+        User user = customer();
+        Long addressId = address(user);
+        cart(user, product, 2, product, 3);
+
+        placeOrder(user, addressId);
+
+        assertThat(stockOf(product)).isEqualTo(5);
+    }
+
+    @Test
+    void parallelCheckoutsNeverOversell() throws Exception {
+        // Every cart wants 3 units of the shared product (two lines) plus one unit of its own product
+        Product shared = product(10);
+        List<Callable<Boolean>> checkouts = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            User user = customer();
+            Long addressId = address(user);
+            cart(user, shared, 1, product(1), 1, shared, 2);
+            checkouts.add(() -> {
+                start.await();
+                try {
+                    placeOrder(user, addressId);
+                    return true;
+                } catch (APIExceptions e) {
+                    return false;
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(CUSTOMERS);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (Callable<Boolean> checkout : checkouts) {
+                results.add(executor.submit(checkout));
+            }
+            start.countDown();
+            int placed = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    placed++;
+                }
+            }
+
+            // 10 units cover exactly three carts of 3; everyone else is refused and rolled back
+            assertThat(placed).isEqualTo(3);
+            assertThat(stockOf(shared)).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void placeOrder(User user, Long addressId) {
+        orderService.placeOrder(user.getEmail(), addressId, "card", "stripe", "pi_concurrent", "succeeded", "ok");
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecommerce.sbecom.services;
+
+import com.ecommerce.sbecom.models.Category;
+import com.ecommerce.sbecom.payload.ProductDTO;
+import com.ecommerce.sbecom.security.jwt.JwtUtils;
+import com.ecommerce.sbecom.support.CheckoutIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Two admins adding the same product at once: whichever loses the race, at the existence check or at the unique
+ * constraint, gets the duplicate 400, and other integrity failures are not disguised as duplicates.
+ */
+@AutoConfigureMockMvc
+class ConcurrentProductAddTest extends CheckoutIntegrationTest {
+
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void parallelAddsOfOneNameCreateOneProduct() throws Exception {
+        Category category = category("Concurrent adds");
+        String bearer = "Bearer " + jwtUtils.generateTokenFromUsername("admin");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                String json = "{\"productName\":\"Raced " + UUID.randomUUID() + "\",\"productDescription\":\"Added twice\","
+                        + "\"productQuantity\":5,\"productPrice\":20,\"productDiscount\":0}";
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Integer>> statuses = new ArrayList<>();
+                for (int i = 0; i < 2; i++) {
+                    statuses.add(executor.submit(() -> {
+                        start.await();
+                        return mockMvc.perform(post("/api/admin/categories/{categoryId}/product", category.getCategoryId())
+                                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(json))
+                                .andReturn().getResponse().getStatus();
+                    }));
+                }
+                start.countDown();
+
+                List<Integer> answered = new ArrayList<>();
+                for (Future<Integer> status : statuses) {
+                    answered.add(status.get());
+                }
+                assertThat(answered).containsExactlyInAnyOrder(201, 400);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void otherIntegrityFailuresAreNotReportedAsDuplicates() {
+        Category category = category("Concurrent adds");
+        ProductDTO tooLong = new ProductDTO();
+        // Longer than the product_name column, so the insert fails on something other than the unique constraint
+        tooLong.setProductName("x".repeat(300));
+        tooLong.setProductQuantity(5);
+        tooLong.setProductPrice(20);
+
+        assertThatThrownBy(() -> productService.addProduct(category.getCategoryId(), tooLong))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+}
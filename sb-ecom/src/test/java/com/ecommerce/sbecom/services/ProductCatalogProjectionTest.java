@@ -0,0 +1,155 @@
+package com.ecommerce.sbecom.services;
+
+import com.ecommerce.sbecom.cache.ProductCatalogCache;
+import com.ecommerce.sbecom.mappers.ProductMapper;
+import com.ecommerce.sbecom.models.Product;
+import com.ecommerce.sbecom.models.User;
+import com.ecommerce.sbecom.payload.ProductDTO;
+import com.ecommerce.sbecom.payload.ProductResponse;
+import com.ecommerce.sbecom.repositories.CategoryRepository;
+import com.ecommerce.sbecom.repositories.UserRepository;
+import com.ecommerce.sbecom.support.CheckoutIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The listing endpoints select ProductDTO rows directly: no Product entity, and none of its eager category,
+ * seller and seller roles, is materialized for a catalog page.
+ */
+class ProductCatalogProjectionTest extends CheckoutIntegrationTest {
+
+    private static final String CATEGORY = "Projection";
+    private static final int PRODUCTS = 50;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void seedCatalog() {
+        if (categoryRepository.findByCategoryName(CATEGORY) != null) {
+            return;
+        }
+        // A seller makes the entity path drag in the user and its roles, as real listings do
+        User seller = userRepository.findByUsername("seller1").orElseThrow();
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = product(CATEGORY, "Projected product " + i, 100 + i, 10);
+            product.setUser(seller);
+            products.add(product);
+        }
+        productRepository.saveAll(products);
+    }
+
+    @Test
+    void listingPageLoadsNoEntities() {
+        productCatalogCache.evictAll();
+
+        Counted<ProductResponse> page = countStatements(() ->
+                productService.getAllProducts(0, PRODUCTS, "productId", "asc", null, CATEGORY));
+
+        assertThat(page.result().getContent()).hasSize(PRODUCTS);
+        assertThat(page.result().getTotalElements()).isEqualTo(PRODUCTS);
+        assertThat(page.entityLoads()).isZero();
+        // The page and its COUNT
+        assertThat(page.statements()).isEqualTo(2);
+    }
+
+    @Test
+    void cursorPageLoadsNoEntities() {
+        Counted<ProductResponse> first = countStatements(() ->
+                productService.getAllProductsAfter(null, 20, "productPrice", "asc", null, CATEGORY, false));
+
+        assertThat(first.result().getContent()).hasSize(20);
+        assertThat(first.entityLoads()).isZero();
+        assertThat(first.statements()).isEqualTo(1);
+
+        Counted<ProductResponse> second = countStatements(() -> productService.getAllProductsAfter(
+                first.result().getNextCursor(), 20, "productPrice", "asc", null, CATEGORY, false));
+        assertThat(second.result().getContent().get(0).getProductName()).isEqualTo("Projected product 20");
+        assertThat(second.entityLoads()).isZero();
+    }
+
+    @Test
+    void projectionRunsFewerStatementsThanEntities() {
+        Counted<List<ProductDTO>> viaEntities = countStatements(viaEntities());
+        Counted<List<ProductDTO>> viaProjection = countStatements(viaProjection());
+
+        assertThat(viaProjection.result()).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(viaEntities.result());
+        assertThat(viaEntities.entityLoads()).isGreaterThanOrEqualTo(PRODUCTS);
+        assertThat(viaProjection.entityLoads()).isZero();
+        assertThat(viaProjection.statements()).isLessThan(viaEntities.statements());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void projectionAllocatesLessThanEntities() {
+        long entityBytes = allocatedBytes(viaEntities());
+        long projectionBytes = allocatedBytes(viaProjection());
+        System.out.printf("Catalog page of %d: entities %d bytes, projection %d bytes%n",
+                PRODUCTS, entityBytes, projectionBytes);
+        assertThat(projectionBytes).isLessThan(entityBytes);
+    }
+
+    private Supplier<List<ProductDTO>> viaEntities() {
+        return () -> transactionTemplate.execute(status ->
+                productRepository.findAll(inCategory(), firstPage()).map(productMapper::toDTO).getContent());
+    }
+
+    private Supplier<List<ProductDTO>> viaProjection() {
+        return () -> transactionTemplate.execute(status ->
+                productRepository.findDTOs(inCategory(), firstPage()).getContent());
+    }
+
+    private static Specification<Product> inCategory() {
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get("category").get("categoryName"), CATEGORY);
+    }
+
+    private static Pageable firstPage() {
+        return PageRequest.of(0, PRODUCTS, Sort.by("productId"));
+    }
+
+    // Bytes allocated by this thread per call, averaged over warmed-up runs
+    private static long allocatedBytes(Supplier<?> action) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        int runs = 20;
+        for (int i = 0; i < runs; i++) {
+            action.get();
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < runs; i++) {
+            action.get();
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - before) / runs;
+    }
+}
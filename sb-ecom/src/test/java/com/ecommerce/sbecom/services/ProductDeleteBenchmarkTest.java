@@ -0,0 +1,61 @@
+package com.ecommerce.sbecom.services;
+
+import com.ecommerce.sbecom.models.Cart;
+import com.ecommerce.sbecom.models.Product;
+import com.ecommerce.sbecom.support.Benchmarks;
+import com.ecommerce.sbecom.support.CheckoutIntegrationTest;
+import com.ecommerce.sbecom.support.SizedOperation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Delete statement count, and opt-in latency, against the number of carts holding the product. The cart cleanup
+ * is two bulk statements, so deleting a product that sits in 200 carts costs the same statements as one in a
+ * single cart.
+ */
+class ProductDeleteBenchmarkTest extends CheckoutIntegrationTest {
+
+    private static final int[] CART_COUNTS = {1, 20, 200};
+    private static final int RUNS = 3;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void deleteStaysFlatAsMoreCartsHoldTheProduct() {
+        long[] statements = statementsBySize(CART_COUNTS, this::delete);
+
+        assertThat(statements).containsOnly(statements[0]);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void deleteLatency() {
+        Benchmarks.latency("Product delete, carts holding it", CART_COUNTS, RUNS, this::delete);
+    }
+
+    private SizedOperation delete(int carts) {
+        Product deleted = product(1000);
+        Product kept = product(1000);
+        List<Long> cartIds = new ArrayList<>();
+        for (int i = 0; i < carts; i++) {
+            cartIds.add(cart(customer(), deleted, 2, kept, 1).getCartId());
+        }
+        return new SizedOperation(
+                () -> productService.deleteProduct(deleted.getProductId()),
+                () -> {
+                    assertThat(productRepository.existsById(deleted.getProductId())).isFalse();
+                    for (Long cartId : List.of(cartIds.get(0), cartIds.get(cartIds.size() - 1))) {
+                        Cart cart = cartRepository.findById(cartId).orElseThrow();
+                        // Only the kept line (1 x 10.0) is left in the total
+                        assertThat(cart.getTotalPrice()).isEqualTo(10.0);
+                    }
+                });
+    }
+}
@@ -0,0 +1,50 @@
+package com.ecommerce.sbecom.support;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Runs the JMH benchmarks of one class, or times an operation against the database at several sizes, from a test
+ * method. Benchmarks are opt-in: {@code mvn test -Dbenchmarks=true -Dtest=<BenchmarkClass>}.
+ */
+public final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    public static void run(Class<?> benchmark) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include("\\Q" + benchmark.getName() + "\\E\\.")
+                .forks(1)
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .shouldFailOnError(true)
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * Times an operation at each size and prints its median and max latency. {@code setUp} builds the fixture for
+     * a size, untimed, and is called again for every run.
+     */
+    public static void latency(String label, int[] sizes, int runs, IntFunction<SizedOperation> setUp) {
+        for (int size : sizes) {
+            long[] nanos = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                SizedOperation prepared = setUp.apply(size);
+                long start = System.nanoTime();
+                prepared.operation().run();
+                nanos[run] = System.nanoTime() - start;
+                prepared.verify().run();
+            }
+            Arrays.sort(nanos);
+            System.out.printf("%s %4d: median %8.2f ms, max %8.2f ms%n",
+                    label, size, nanos[runs / 2] / 1e6, nanos[runs - 1] / 1e6);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.ecommerce.sbecom.support;
+
+import com.ecommerce.sbecom.models.Address;
+import com.ecommerce.sbecom.models.AppRole;
+import com.ecommerce.sbecom.models.Cart;
+import com.ecommerce.sbecom.models.CartItem;
+import com.ecommerce.sbecom.models.Category;
+import com.ecommerce.sbecom.models.Product;
+import com.ecommerce.sbecom.models.User;
+import com.ecommerce.sbecom.repositories.AddressRepository;
+import com.ecommerce.sbecom.repositories.CartItemRespository;
+import com.ecommerce.sbecom.repositories.CartRepository;
+import com.ecommerce.sbecom.repositories.CategoryRepository;
+import com.ecommerce.sbecom.repositories.ProductRepository;
+import com.ecommerce.sbecom.repositories.RoleRepository;
+import com.ecommerce.sbecom.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Builds customers, categories, stocked products and filled carts for the checkout and catalog tests. Every call creates fresh rows
+ * with unique names, so the tests do not depend on each other's data.
+ */
+public abstract class CheckoutIntegrationTest extends PostgresIntegrationTest {
+
+    private static final String CATEGORY = "Checkout";
+
+    @Autowired
+    protected ProductRepository productRepository;
+
+    @Autowired
+    protected CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRespository cartItemRespository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    protected User customer() {
+        String name = "c" + UUID.randomUUID().toString().substring(0, 12);
+        User user = new User("secret", name + "@example.com", name);
+        // The role has to be managed in the same persistence context, or the cascade tries to persist it again
+        return transactionTemplate.execute(status -> {
+            user.setRoles(new HashSet<>(Set.of(roleRepository.findByRoleName(AppRole.ROLE_USER).orElseThrow())));
+            return userRepository.save(user);
+        });
+    }
+
+    protected Long address(User user) {
+        Address address = new Address("Building 1", "Pune City", "India", "411001", "MH", "Main Street");
+        address.setUser(user);
+        return addressRepository.save(address).getAddressId();
+    }
+
+    protected Product product(int stock) {
+        return product(CATEGORY, "Checkout product " + UUID.randomUUID(), 10, stock);
+    }
+
+    protected Product product(String categoryName, String name, double price, int stock) {
+        Product product = new Product();
+        product.setProductName(name);
+        product.setProductImage("default.png");
+        product.setProductQuantity(stock);
+        product.setProductPrice(price);
+        product.setSpecialPrice(price);
+        product.setCategory(category(categoryName));
+        return productRepository.save(product);
+    }
+
+    /**
+     * Gives the user a cart holding one line per (product, quantity) pair; the same product may appear twice.
+     */
+    protected Cart cart(User user, Object... productsAndQuantities) {
+        Cart cart = new Cart();
+        cart.setUser(user);
+        cart = cartRepository.save(cart);
+        double total = 0;
+        for (int i = 0; i < productsAndQuantities.length; i += 2) {
+            Product product = (Product) productsAndQuantities[i];
+            int quantity = (Integer) productsAndQuantities[i + 1];
+            CartItem item = new CartItem();
+            item.setCart(cart);
+            item.setProduct(product);
+            item.setQuantity(quantity);
+            item.setProductPrice(product.getSpecialPrice());
+            cartItemRespository.save(item);
+            total += product.getSpecialPrice() * quantity;
+        }
+        cart.setTotalPrice(total);
+        return cartRepository.save(cart);
+    }
+
+    protected int stockOf(Product product) {
+        return productRepository.findById(product.getProductId()).orElseThrow().getProductQuantity();
+    }
+
+    protected Category category(String name) {
+        Category category = categoryRepository.findByCategoryName(name);
+        if (category == null) {
+            category = new Category();
+            category.setCategoryName(name);
+            category = categoryRepository.save(category);
+        }
+        return category;
+    }
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.sbecom.support;
+
+import com.ecommerce.sbecom.search.ProductSearchIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Base for tests that need the real schema and the Postgres-specific SQL (UPDATE ... FROM, FOR UPDATE OF,
+ * sequences). One container is shared by every test class, so Spring's context cache stays valid; the
+ * tests are skipped when no Docker daemon is available.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    static {
+        if (DockerClientFactory.instance().isDockerAvailable()) {
+            POSTGRES.start();
+        }
+    }
+
+    @Autowired
+    protected EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    // The index build at startup runs its own queries; statement counts are only meaningful once it is done
+    @BeforeEach
+    protected void awaitStartupWork() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!productSearchIndex.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * Number of JDBC statements Hibernate prepared while running the action. Hibernate statistics are
+     * factory-wide, so only call this while nothing else touches the database.
+     */
+    protected long countStatements(Runnable action) {
+        return countStatements(() -> {
+            action.run();
+            return null;
+        }).statements();
+    }
+
+    protected <T> Counted<T> countStatements(Supplier<T> action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        T result = action.get();
+        return new Counted<>(result, statistics.getPrepareStatementCount(), statistics.getEntityLoadCount());
+    }
+
+    /**
+     * Statements the operation prepared by {@code setUp} runs at each size; building the fixture is not counted.
+     * The timing counterpart is {@link Benchmarks#latency}.
+     */
+    protected long[] statementsBySize(int[] sizes, IntFunction<SizedOperation> setUp) {
+        long[] statements = new long[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+            SizedOperation prepared = setUp.apply(sizes[i]);
+            statements[i] = countStatements(prepared.operation());
+            prepared.verify().run();
+        }
+        return statements;
+    }
+
+    protected record Counted<T>(T result, long statements, long entityLoads) {
+    }
+}
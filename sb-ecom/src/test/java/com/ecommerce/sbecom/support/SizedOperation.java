@@ -0,0 +1,13 @@
+package com.ecommerce.sbecom.support;
+
+/**
+ * One prepared run of a measured operation: the operation itself, and the checks on its outcome, which are
+ * neither timed nor counted.
+ */
+public record SizedOperation(Runnable operation, Runnable verify) {
+
+    public static SizedOperation of(Runnable operation) {
+        return new SizedOperation(operation, () -> {
+        });
+    }
+}